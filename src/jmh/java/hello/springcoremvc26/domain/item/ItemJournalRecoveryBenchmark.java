@@ -0,0 +1,90 @@
+package hello.springcoremvc26.domain.item;
+
+import hello.springcoremvc26.domain.journal.Journal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * 백만 상품 복구 시간
+ * <p>
+ * log : 저장 100만 + 수정 100만 레코드를 모두 다시 적용
+ * snapshot : 같은 변경 후 스냅샷을 만들어서 상품 100만 레코드만 읽음
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemJournalRecoveryBenchmark {
+    private static final int BATCH = 10_000;
+
+    @Param({"1000000"})
+    private int items;
+
+    @Param({"log", "snapshot"})
+    private String source;
+
+    private Path directory;
+    private Journal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("item-journal");
+        Journal writer = new Journal(directory, "items", 0);
+        ItemRepository itemRepository = new ItemRepository(writer);
+        for (int i = 0; i < items; i += BATCH) {
+            List<Item> batch = new ArrayList<>(BATCH);
+            for (int j = i; j < Math.min(items, i + BATCH); j++) {
+                batch.add(new Item("item" + j, 10000 + j, 10));
+            }
+            itemRepository.saveAll(batch);
+        }
+        // 수정은 하나씩 fsync 를 기다리므로 여러 스레드로 묶어서 기록한다.
+        ForkJoinPool pool = new ForkJoinPool(64);
+        pool.submit(() -> LongStream.rangeClosed(1, items).parallel()
+                .forEach(id -> itemRepository.update(id, new Item("updated" + id, 20000, 5)))).get();
+        pool.shutdown();
+        if ("snapshot".equals(source)) {
+            writer.snapshot();
+        }
+        writer.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeJournal() {
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public ItemRepository recover() {
+        journal = new Journal(directory, "items", 0);
+        return new ItemRepository(journal);
+    }
+}
@@ -0,0 +1,88 @@
+package hello.springcoremvc26.domain.item;
+
+import hello.springcoremvc26.domain.journal.Journal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 저널을 붙인 ItemRepository 쓰기 처리량
+ * <p>
+ * 쓰기마다 fsync 를 기다리므로 단일 스레드 처리량은 디스크의 fsync 지연시간에 묶인다.
+ * 스레드가 많아지면 group commit 으로 한 번의 fsync 에 여러 레코드가 묶여서 전체 처리량이 늘어나야 한다.
+ * 결과의 ops/s 는 모든 스레드의 합이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemJournalWriteBenchmark {
+    private static final int INITIAL_ITEMS = 10_000;
+
+    private Path directory;
+    private Journal journal;
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("item-journal");
+        // 측정 중에는 스냅샷을 만들지 않는다.
+        journal = new Journal(directory, "items", 0);
+        itemRepository = new ItemRepository(journal);
+        for (int i = 0; i < INITIAL_ITEMS; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Item save_1thread() {
+        return itemRepository.save(new Item("new", 10000, 1));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Item save_8threads() {
+        return itemRepository.save(new Item("new", 10000, 1));
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Item save_32threads() {
+        return itemRepository.save(new Item("new", 10000, 1));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long update_8threads() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, INITIAL_ITEMS + 1);
+        itemRepository.update(id, new Item("updated", random.nextInt(1000, 100000), 5));
+        return id;
+    }
+}
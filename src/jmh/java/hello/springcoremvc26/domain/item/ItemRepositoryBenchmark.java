@@ -0,0 +1,83 @@
+package hello.springcoremvc26.domain.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemRepository 단일 스레드 기본 연산
+ * <p>
+ * 동시 접근 처리량은 ItemRepositoryContentionBenchmark 참고
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRepositoryBenchmark {
+    @Param({"1000", "100000"})
+    private int items;
+
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        itemRepository = new ItemRepository();
+        for (int i = 0; i < items; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemRepository.save(new Item("new", 10000, 1));
+    }
+
+    /**
+     * 변경이 없으면 스냅샷 재사용
+     */
+    @Benchmark
+    public List<Item> findAll() {
+        return itemRepository.findAll();
+    }
+
+    /**
+     * 매번 변경 후 조회, 스냅샷을 다시 만드는 비용
+     */
+    @Benchmark
+    public List<Item> updateThenFindAll() {
+        update();
+        return itemRepository.findAll();
+    }
+
+    /**
+     * 상품 수와 상관없이 페이지 크기만큼만 읽어야 한다.
+     */
+    @Benchmark
+    public ItemPage findPage_byName() {
+        long id = ThreadLocalRandom.current().nextLong(1, items + 1);
+        ItemCursor cursor = ItemCursor.of(ItemSort.NAME, itemRepository.findById(id));
+        return itemRepository.findPage(ItemSort.NAME, cursor, 20);
+    }
+
+    @Benchmark
+    public long update() {
+        long id = ThreadLocalRandom.current().nextLong(1, items + 1);
+        itemRepository.update(id, new Item("updated", 20000, 20));
+        return id;
+    }
+}
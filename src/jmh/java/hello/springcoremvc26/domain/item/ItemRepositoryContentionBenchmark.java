@@ -0,0 +1,102 @@
+package hello.springcoremvc26.domain.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemRepository 동시 접근 처리량
+ * <p>
+ * 같은 작업을 1, 2, 4, 8 스레드와 가용 코어 수(Threads.MAX)로 실행해서
+ * 코어 수에 따라 처리량이 늘어나는지 비교한다.
+ * 결과의 ops/ms 는 모든 스레드의 합이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRepositoryContentionBenchmark {
+    private static final int INITIAL_ITEMS = 10_000;
+
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        itemRepository = new ItemRepository();
+        for (int i = 0; i < INITIAL_ITEMS; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+    }
+
+    /**
+     * 등록 30%, 수정 50%, 목록 조회 20% 의 혼합 부하
+     */
+    private Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int op = random.nextInt(10);
+        if (op < 3) {
+            return itemRepository.save(new Item("new", 10000, 1));
+        }
+        if (op < 8) {
+            long id = random.nextLong(1, INITIAL_ITEMS + 1);
+            itemRepository.update(id, new Item("updated", random.nextInt(1000, 100000), 5));
+            return id;
+        }
+        List<Item> items = itemRepository.findAll();
+        return items.size();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object mixed_01() {
+        return mixed();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object mixed_02() {
+        return mixed();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object mixed_04() {
+        return mixed();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object mixed_08() {
+        return mixed();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object mixed_max() {
+        return mixed();
+    }
+
+    /**
+     * 쓰기가 없을 때 findAll() 은 스냅샷을 그대로 반환해야 한다.
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Item> findAll_readOnly() {
+        return itemRepository.findAll();
+    }
+}
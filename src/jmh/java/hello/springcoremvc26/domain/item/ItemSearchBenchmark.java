@@ -0,0 +1,78 @@
+package hello.springcoremvc26.domain.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 검색 지연시간
+ * <p>
+ * 상품명은 작은 어휘에서 고른 두 단어 + 일련번호로 만든다.
+ * 검색은 인덱스 범위만 읽으므로 상품 수보다 후보 수와 조건의 선택도에 따라 달라진다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {
+            "red", "blue", "green", "shirt", "shoe", "hat", "cotton", "wool", "large", "small"
+    };
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemRepository = new ItemRepository();
+        Random random = new Random(1);
+        List<Item> batch = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            batch.add(new Item(name, random.nextInt(100_000), random.nextInt(1000)));
+        }
+        itemRepository.saveAll(batch);
+    }
+
+    /**
+     * 흔한 두 단어 접두어 + 가격, 수량 범위
+     */
+    @Benchmark
+    public ItemPage search_nameAndRanges() {
+        return itemRepository.search(new ItemSearch("wool sho", 500, 60_000, 100, 900), null, 20);
+    }
+
+    /**
+     * 일련번호 접두어, 후보가 적다.
+     */
+    @Benchmark
+    public ItemPage search_rareName() {
+        return itemRepository.search(new ItemSearch("99999", null, null, null, null), null, 20);
+    }
+
+    /**
+     * 좁은 가격 범위 + 수량 범위
+     */
+    @Benchmark
+    public ItemPage search_priceRange() {
+        return itemRepository.search(new ItemSearch(null, 500, 510, 0, 10), null, 20);
+    }
+}
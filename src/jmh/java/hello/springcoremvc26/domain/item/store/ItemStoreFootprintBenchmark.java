@@ -0,0 +1,110 @@
+package hello.springcoremvc26.domain.item.store;
+
+import hello.springcoremvc26.domain.item.Item;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 1000만 개를 담은 저장소의 메모리 사용량과 GC 비용, HeapItemStore 와 ColumnarItemStore 비교
+ * <p>
+ * 시간은 채우는 데 걸린 시간이고, 결과는 보조 지표로 본다.
+ * <ul>
+ *     <li>heapBytesPerItem: 채우기 전후 GC 후 힙 사용량 차이 / 상품 수</li>
+ *     <li>offHeapBytesPerItem: ColumnarItemStore 가 힙 밖에 할당한 바이트 / 상품 수</li>
+ *     <li>fullGcMillis: 저장소가 살아있는 상태에서 System.gc() 한 번에 걸린 시간</li>
+ *     <li>churnGcMillis: 짧게 사는 객체를 계속 만드는 동안 GC 에 쓴 시간</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g", "-XX:MaxDirectMemorySize=2g"})
+public class ItemStoreFootprintBenchmark {
+    @Param({"heap", "columnar"})
+    private String type;
+
+    @Param({"10000000"})
+    private int items;
+
+    @Param({"100000000"})
+    private int churnAllocations;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapBytesPerItem;
+        public long offHeapBytesPerItem;
+        public long fullGcMillis;
+        public long churnGcMillis;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapBytesPerItem = 0;
+            offHeapBytesPerItem = 0;
+            fullGcMillis = 0;
+            churnGcMillis = 0;
+        }
+    }
+
+    @Benchmark
+    public ItemStore fill(Footprint footprint) {
+        long before = usedHeap();
+        ItemStore store = type.equals("columnar") ? new ColumnarItemStore() : new HeapItemStore();
+        for (int i = 1; i <= items; i++) {
+            Item item = new Item("item " + i, 1000 + i % 5000, i % 100);
+            item.setId((long) i);
+            store.insert(item, () -> {});
+        }
+        long after = usedHeap();
+
+        long start = System.nanoTime();
+        System.gc();
+        footprint.fullGcMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 요청 처리처럼 짧게 사는 객체를 만든다. 살아있는 상품이 많을수록 GC 마다 훑을 것이 많다.
+        long gcBefore = gcMillis();
+        Object[] recent = new Object[4096];
+        for (int i = 0; i < churnAllocations; i++) {
+            recent[i & (recent.length - 1)] = new byte[64];
+        }
+        footprint.churnGcMillis = gcMillis() - gcBefore;
+
+        footprint.heapBytesPerItem = (after - before) / items;
+        if (store instanceof ColumnarItemStore columnar) {
+            footprint.offHeapBytesPerItem = columnar.getOffHeapBytes() / items;
+        }
+        return store;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionTime();
+        }
+        return total;
+    }
+}
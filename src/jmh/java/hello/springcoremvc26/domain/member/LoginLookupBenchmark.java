@@ -0,0 +1,58 @@
+package hello.springcoremvc26.domain.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 수에 따른 loginId 조회 지연시간
+ * <p>
+ * 인덱스 조회는 회원 수와 상관없이 일정해야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoginLookupBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int members;
+
+    private MemberRepository memberRepository;
+    private String[] loginIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memberRepository = new MemberRepository();
+        loginIds = new String[members];
+        for (int i = 0; i < members; i++) {
+            loginIds[i] = "member" + i;
+            memberRepository.save(new Member(loginIds[i], "name" + i, "password" + i));
+        }
+    }
+
+    @Benchmark
+    public Optional<Member> findByLoginId() {
+        String loginId = loginIds[ThreadLocalRandom.current().nextInt(members)];
+        return memberRepository.findByLongId(loginId);
+    }
+
+    @Benchmark
+    public Optional<Member> findByLoginId_missing() {
+        return memberRepository.findByLongId("unknown");
+    }
+}
@@ -0,0 +1,93 @@
+package hello.springcoremvc26.web.argumentresolver;
+
+import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.domain.member.MemberCache;
+import hello.springcoremvc26.domain.member.MemberRepository;
+import hello.springcoremvc26.web.HomeController;
+import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.auth.LoginMembers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HomeController.homeLogin(@Login Member, Model) 의 파라미터로 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginMemberArgumentResolverBenchmark {
+    private LoginMemberArgumentResolver resolver;
+    private MethodParameter loginParameter;
+    private MethodParameter modelParameter;
+    private ServletWebRequest loginRequest;
+    private ServletWebRequest anonymousRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        MemberRepository memberRepository = new MemberRepository();
+        Member member = memberRepository.save(new Member("test", "테스터", "test!"));
+        resolver = new LoginMemberArgumentResolver(new MemberCache(memberRepository, 10_000));
+
+        var method = HomeController.class.getMethod("homeLogin", Member.class, Model.class);
+        loginParameter = new MethodParameter(method, 0);
+        modelParameter = new MethodParameter(method, 1);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionConst.LOGIN_MEMBER, member.getId());
+        request.setSession(session);
+        loginRequest = new ServletWebRequest(request);
+
+        anonymousRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/"));
+    }
+
+    @Benchmark
+    public boolean supportsParameter_login() {
+        return resolver.supportsParameter(loginParameter);
+    }
+
+    @Benchmark
+    public boolean supportsParameter_other() {
+        return resolver.supportsParameter(modelParameter);
+    }
+
+    /**
+     * 같은 요청에서 필터가 이미 회원 ID 를 조회한 경우, MemberCache 조회만 남는다.
+     */
+    @Benchmark
+    public Object resolveArgument_loggedIn() throws Exception {
+        return resolver.resolveArgument(loginParameter, null, loginRequest, null);
+    }
+
+    /**
+     * 요청에서 처음 조회하는 경우, 세션을 읽는다.
+     */
+    @Benchmark
+    public Object resolveArgument_loggedIn_firstLookup() throws Exception {
+        LoginMembers.forget(loginRequest.getRequest());
+        return resolver.resolveArgument(loginParameter, null, loginRequest, null);
+    }
+
+    @Benchmark
+    public Object resolveArgument_anonymous() throws Exception {
+        return resolver.resolveArgument(loginParameter, null, anonymousRequest, null);
+    }
+}
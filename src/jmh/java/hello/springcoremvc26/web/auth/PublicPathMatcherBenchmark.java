@@ -0,0 +1,68 @@
+package hello.springcoremvc26.web.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.PatternMatchUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PatternMatchUtils.simpleMatch 배열 검사 vs 컴파일된 PublicPathMatcher
+ * <p>
+ * 요청 대부분은 화이트 리스트에 없는 경로이므로, 일치하지 않는 경로도 같이 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicPathMatcherBenchmark {
+    @Param({"5", "100", "300"})
+    private int patternCount;
+
+    @Param({"/items/12345/edit", "/public/section42/page7", "/css/bootstrap.min.css"})
+    private String path;
+
+    private String[] simplePatterns;
+    private PublicPathMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        List<String> antPatterns = new ArrayList<>(List.of("/", "/members/add", "/login", "/logout", "/css/**"));
+        List<String> simple = new ArrayList<>(List.of("/", "/members/add", "/login", "/logout", "/css/*"));
+
+        for (int i = 0; antPatterns.size() < patternCount; i++) {
+            antPatterns.add("/public/section" + i + "/*");
+            simple.add("/public/section" + i + "/*");
+            antPatterns.add("/static" + i + "/**");
+            simple.add("/static" + i + "/*");
+            antPatterns.add("/*.ext" + i);
+            simple.add("/*.ext" + i);
+        }
+
+        simplePatterns = simple.subList(0, patternCount).toArray(String[]::new);
+        matcher = new PublicPathMatcher(antPatterns.subList(0, patternCount));
+    }
+
+    @Benchmark
+    public boolean simpleMatch() {
+        return PatternMatchUtils.simpleMatch(simplePatterns, path);
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return matcher.matches(path);
+    }
+}
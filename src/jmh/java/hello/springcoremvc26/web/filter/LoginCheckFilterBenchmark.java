@@ -0,0 +1,78 @@
+package hello.springcoremvc26.web.filter;
+
+import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.auth.AuthProperties;
+import hello.springcoremvc26.web.auth.PublicPathMatcher;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginCheckFilter.doFilter, 다음 필터 체인은 아무 일도 하지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginCheckFilterBenchmark {
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    private LoginCheckFilter filter;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletRequest loginRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new LoginCheckFilter(new PublicPathMatcher(new AuthProperties().getPublicPaths()));
+
+        publicRequest = new MockHttpServletRequest("GET", "/css/bootstrap.min.css");
+
+        loginRequest = new MockHttpServletRequest("GET", "/items/1");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionConst.LOGIN_MEMBER, 1L);
+        loginRequest.setSession(session);
+
+        anonymousRequest = new MockHttpServletRequest("GET", "/items/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void publicPath() throws ServletException, IOException {
+        filter.doFilter(publicRequest, response, NOOP_CHAIN);
+    }
+
+    @Benchmark
+    public void loggedIn() throws ServletException, IOException {
+        filter.doFilter(loginRequest, response, NOOP_CHAIN);
+    }
+
+    /**
+     * 리다이렉트한 응답은 다시 쓸 수 없으므로 매번 새로 만든다.
+     */
+    @Benchmark
+    public MockHttpServletResponse anonymousRedirect() throws ServletException, IOException {
+        MockHttpServletResponse redirect = new MockHttpServletResponse();
+        filter.doFilter(anonymousRequest, redirect, NOOP_CHAIN);
+        return redirect;
+    }
+}
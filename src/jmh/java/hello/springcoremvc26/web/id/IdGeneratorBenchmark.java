@@ -0,0 +1,68 @@
+package hello.springcoremvc26.web.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기존 UUID.randomUUID() 와 ID 생성기 비교
+ * <p>
+ * 단일 스레드와 가용 코어 수 스레드에서 각각 측정해서 공유 SecureRandom 경합을 확인한다.
+ * 할당량은 -prof gc 로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+    private final IdGenerator sessionIdGenerator = new SecureSessionIdGenerator();
+    private final IdGenerator requestIdGenerator = new MonotonicRequestIdGenerator();
+
+    @Benchmark
+    @Threads(1)
+    public String uuid_1thread() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String uuid_maxThreads() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String session_1thread() {
+        return sessionIdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String session_maxThreads() {
+        return sessionIdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String request_1thread() {
+        return requestIdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String request_maxThreads() {
+        return requestIdGenerator.generateId();
+    }
+}
@@ -0,0 +1,59 @@
+package hello.springcoremvc26.web.metrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나의 처리 시간 기록 비용
+ * <p>
+ * 할당이 없어야 하므로 -prof gc 로 실행했을 때 gc.alloc.rate.norm 이 0 에 가까워야 한다.
+ * 8 스레드는 같은 핸들러에 동시에 기록하는 경우다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlerMetricsBenchmark {
+    private HandlerMetrics handlerMetrics;
+    private HandlerMethod handler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        handlerMetrics = new HandlerMetrics();
+        handler = new HandlerMethod(new SampleController(), SampleController.class.getMethod("items"));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record_1thread() {
+        handlerMetrics.record(handler, 200, ThreadLocalRandom.current().nextLong(100_000, 50_000_000));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void record_8threads() {
+        handlerMetrics.record(handler, 200, ThreadLocalRandom.current().nextLong(100_000, 50_000_000));
+    }
+
+    public static class SampleController {
+        public String items() {
+            return "items";
+        }
+    }
+}
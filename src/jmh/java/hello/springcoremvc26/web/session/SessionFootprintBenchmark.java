@@ -0,0 +1,110 @@
+package hello.springcoremvc26.web.session;
+
+import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.web.session.store.CompactSessionValueCodec;
+import hello.springcoremvc26.web.session.store.HeapSessionStore;
+import hello.springcoremvc26.web.session.store.SessionStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션 하나가 붙잡는 바이트 수, 세션 값이 Member 인 경우(이전)와 회원 ID 인 경우(현재) 비교
+ * <p>
+ * 시간은 참고용이고, 결과는 보조 지표로 본다.
+ * <ul>
+ *     <li>heapBytesPerSession: HeapSessionStore 에 세션을 채우기 전후 GC 후 힙 사용량 차이 / 세션 수.
+ *     Member 는 저장소에서 읽거나 복제될 때처럼 세션마다 따로 만든다.</li>
+ *     <li>encodedBytesPerSession: MappedFileSessionStore 가 파일에 쓰는 세션 값 크기</li>
+ *     <li>serializedBytesPerSession: 톰캣 세션 저장, 복제에 쓰이는 자바 직렬화 크기</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class SessionFootprintBenchmark {
+    @Param({"member", "memberId"})
+    private String payload;
+
+    @Param({"100000"})
+    private int sessions;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapBytesPerSession;
+        public long encodedBytesPerSession;
+        public long serializedBytesPerSession;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapBytesPerSession = 0;
+            encodedBytesPerSession = 0;
+            serializedBytesPerSession = 0;
+        }
+    }
+
+    @Benchmark
+    public SessionStore fill(Footprint footprint) {
+        long before = usedHeap();
+        SessionStore store = new HeapSessionStore();
+        for (int i = 0; i < sessions; i++) {
+            store.put(new SessionEntry(String.format("%032x", i), valueOf(i), i, i));
+        }
+        long after = usedHeap();
+
+        Object sample = valueOf(sessions / 2);
+        footprint.heapBytesPerSession = (after - before) / sessions;
+        footprint.encodedBytesPerSession = new CompactSessionValueCodec().encode(sample).length;
+        footprint.serializedBytesPerSession = serializedSize(sample);
+        return store;
+    }
+
+    private Object valueOf(int i) {
+        long memberId = i + 1L;
+        if (payload.equals("memberId")) {
+            return memberId;
+        }
+
+        Member member = new Member("member" + i, "회원" + i, "password" + i);
+        member.setId(memberId);
+        return member;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long serializedSize(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,68 @@
+package hello.springcoremvc26.web.session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionManagerBenchmark {
+    private SessionManager sessionManager;
+    private final Long memberId = 1L;
+    private MockHttpServletRequest loginRequest;
+    private MockHttpServletRequest anonymousRequest;
+
+    @Setup
+    public void setUp() {
+        sessionManager = new SessionManager();
+
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        sessionManager.createSession(memberId, resp);
+        loginRequest = new MockHttpServletRequest();
+        loginRequest.setCookies(resp.getCookies());
+
+        anonymousRequest = new MockHttpServletRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionManager.shutdown();
+    }
+
+    @Benchmark
+    public Optional<Long> getSession() {
+        return sessionManager.getSession(loginRequest);
+    }
+
+    @Benchmark
+    public Optional<Long> getSession_noCookie() {
+        return sessionManager.getSession(anonymousRequest);
+    }
+
+    /**
+     * 최대 세션 수에 도달하면 제거 비용까지 포함된다.
+     */
+    @Benchmark
+    public MockHttpServletResponse createSession() {
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        sessionManager.createSession(memberId, resp);
+        return resp;
+    }
+}
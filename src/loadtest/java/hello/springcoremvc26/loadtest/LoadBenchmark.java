@@ -0,0 +1,233 @@
+package hello.springcoremvc26.loadtest;
+
+import hello.springcoremvc26.SpringCoreMvc26Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인과 /items 조회 부하 벤치마크
+ * <p>
+ * 모드마다 애플리케이션을 임의 포트로 띄우고, concurrency 개의 클라이언트가 동시에
+ * 로그인 -> /items 조회 (loginEvery 번마다 다시 로그인) 를 반복한다.
+ * 워밍업 이후 구간의 처리량과 p50, p99 지연시간을 출력한다.
+ * <p>
+ * 설정 (시스템 프로퍼티)
+ * <pre>
+ * load.modes       platform,virtual (virtual 은 Java 21 빌드에서만 가상 스레드로 동작)
+ * load.concurrency 동시 클라이언트 수, 기본 256
+ * load.warmup      워밍업 시간, 기본 PT10S
+ * load.duration    측정 시간, 기본 PT30S
+ * load.loginEvery  로그인 간격(요청 수), 기본 20
+ * </pre>
+ */
+public class LoadBenchmark {
+    private static final String LOGIN_FORM = "loginId=test&password=test%21";
+    private static final Duration RESULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String mode;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int loginEvery;
+
+    private HttpClient client;
+    private String baseUrl;
+
+    LoadBenchmark(
+            String mode,
+            int concurrency,
+            Duration warmup,
+            Duration duration,
+            int loginEvery
+    ) {
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.loginEvery = loginEvery;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> modes = Arrays.asList(System.getProperty("load.modes", "platform").split(","));
+        int concurrency = Integer.getInteger("load.concurrency", 256);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        int loginEvery = Integer.getInteger("load.loginEvery", 20);
+
+        List<String> results = new ArrayList<>();
+        for (String mode : modes) {
+            LoadBenchmark benchmark = new LoadBenchmark(mode.trim(), concurrency, warmup, duration, loginEvery);
+            results.addAll(benchmark.run());
+        }
+
+        System.out.printf("%n%-10s %-7s %10s %8s %12s %10s %10s%n",
+                "mode", "flow", "requests", "errors", "throughput/s", "p50(ms)", "p99(ms)");
+        results.forEach(System.out::println);
+    }
+
+    List<String> run() throws Exception {
+        ConfigurableApplicationContext context = start();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            // 클라이언트 스레드는 모두 send() 에서 기다리므로, 응답 처리는 HttpClient 의 기본 executor 에 맡긴다.
+            client = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long measureEnd = measureStart + duration.toNanos();
+
+            List<Future<Recorder[]>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> drive(measureStart, measureEnd)));
+            }
+
+            Recorder login = new Recorder();
+            Recorder items = new Recorder();
+            // 요청 하나가 끝나지 않아도 측정 시간에 여유를 더한 만큼만 기다린다.
+            long deadline = measureEnd + RESULT_TIMEOUT.toNanos();
+            for (Future<Recorder[]> future : futures) {
+                Recorder[] recorders = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                login.addAll(recorders[0]);
+                items.addAll(recorders[1]);
+            }
+
+            return List.of(login.summary(mode, "login", duration), items.summary(mode, "items", duration));
+        } finally {
+            clients.shutdownNow();
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringCoreMvc26Application.class)
+                .properties(
+                        "server.port=0",
+                        "app.login.throttle.enabled=false",
+                        "logging.level.request-trace=WARN",
+                        "logging.level.hello.springcoremvc26=WARN"
+                );
+        if ("virtual".equals(mode)) {
+            builder.profiles("virtual");
+        }
+        return builder.run();
+    }
+
+    /**
+     * 클라이언트 하나의 반복, 측정 구간의 지연시간만 기록한다.
+     *
+     * @return [로그인, /items] 기록
+     */
+    private Recorder[] drive(long measureStart, long measureEnd) throws InterruptedException {
+        Recorder login = new Recorder();
+        Recorder items = new Recorder();
+        String cookie = null;
+
+        for (int i = 0; System.nanoTime() < measureEnd; i++) {
+            boolean doLogin = cookie == null || i % loginEvery == 0;
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                if (doLogin) {
+                    cookie = login();
+                    ok = cookie != null;
+                } else {
+                    ok = items(cookie);
+                }
+            } catch (IOException e) {
+                ok = false;
+            }
+
+            long end = System.nanoTime();
+            if (start >= measureStart && end <= measureEnd) {
+                (doLogin ? login : items).record(end - start, ok);
+            }
+        }
+        return new Recorder[]{login, items};
+    }
+
+    /**
+     * @return 세션 쿠키, 실패하면 null
+     */
+    private String login() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_FORM))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 302) {
+            return null;
+        }
+        return response.headers().firstValue("Set-Cookie")
+                .map(value -> value.substring(0, value.indexOf(';') < 0 ? value.length() : value.indexOf(';')))
+                .orElse(null);
+    }
+
+    private boolean items(String cookie) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/items"))
+                .header("Cookie", cookie)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    /**
+     * 지연시간(ns) 기록, 클라이언트 스레드마다 하나씩 쓰고 끝나면 합친다.
+     */
+    static class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        String summary(String mode, String flow, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return String.format("%-10s %-7s %10d %8d %12.1f %10.2f %10.2f",
+                    mode, flow, size, errors, size / (duration.toMillis() / 1000.0),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package hello.springcoremvc26.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 브라우저 하나처럼 세션 쿠키를 들고 흐름을 실행하는 가상 사용자
+ * <p>
+ * 스레드 하나가 하나씩 쓴다. 응답 본문은 읽어서 버린다.
+ */
+class LoadClient {
+    private static final String LOGIN_FORM = "loginId=test&password=test%21";
+
+    private final HttpClient client;
+    private final URI baseUri;
+
+    /**
+     * 수정, 조회 대상 상품 ID 범위, 등록 흐름이 lastItemId 를 올린다.
+     */
+    private final long firstItemId;
+    private final AtomicLong lastItemId;
+
+    private String cookie;
+    private int requests;
+
+    LoadClient(
+            HttpClient client,
+            URI baseUri,
+            long firstItemId,
+            AtomicLong lastItemId
+    ) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.firstItemId = firstItemId;
+        this.lastItemId = lastItemId;
+    }
+
+    /**
+     * 흐름 하나 실행, 로그인하지 않았으면 먼저 로그인한다.
+     * 실패하면 세션이 만료됐을 수도 있으므로 다음 흐름에서 다시 로그인한다.
+     *
+     * @throws FlowFailure 기대한 것과 다른 응답
+     */
+    void run(LoadFlow flow) throws FlowFailure, IOException, InterruptedException {
+        requests = 0;
+        try {
+            if (cookie == null && flow != LoadFlow.LOGIN) {
+                login();
+            }
+
+            switch (flow) {
+                case LOGIN -> login();
+                case BROWSE -> browse();
+                case ADD -> add();
+                case EDIT -> edit();
+            }
+        } catch (FlowFailure e) {
+            cookie = null;
+            throw e;
+        }
+    }
+
+    /**
+     * 마지막 흐름에서 보낸 요청 수, 실패한 흐름은 실패한 요청까지 센다.
+     */
+    int getRequests() {
+        return requests;
+    }
+
+    /**
+     * 로그인, 세션이 있으면 브라우저처럼 쿠키를 같이 보낸다.
+     * 서버는 살아있는 세션을 그대로 쓰고 Set-Cookie 를 보내지 않으므로, 그때는 가지고 있던 쿠키를 계속 쓴다.
+     */
+    private void login() throws FlowFailure, IOException, InterruptedException {
+        HttpResponse<Void> response = send(post("/login", LOGIN_FORM), 302);
+        List<String> cookies = response.headers().allValues("Set-Cookie");
+        if (cookies.isEmpty()) {
+            if (cookie == null) {
+                throw new FlowFailure("POST /login -> no Set-Cookie");
+            }
+        } else {
+            cookie = cookies.stream()
+                    .map(value -> value.indexOf(';') < 0 ? value : value.substring(0, value.indexOf(';')))
+                    .collect(Collectors.joining("; "));
+        }
+
+        send(get("/"), 200);
+    }
+
+    private void browse() throws FlowFailure, IOException, InterruptedException {
+        send(get("/items"), 200);
+        send(get("/items/" + randomItemId()), 200);
+    }
+
+    private void add() throws FlowFailure, IOException, InterruptedException {
+        send(get("/items/add"), 200);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpResponse<Void> response = send(post("/items/add", form(
+                "load item " + random.nextInt(1_000_000),
+                random.nextInt(10, 100) * 1000,
+                random.nextInt(1, 100)
+        )), 302);
+
+        // 등록된 상품 화면으로 이동, /items/{itemId}?status=true
+        String location = response.headers().firstValue("Location")
+                .orElseThrow(() -> new FlowFailure("POST /items/add -> no Location"));
+        URI itemUri = baseUri.resolve(location);
+        String path = itemUri.getPath();
+        lastItemId.accumulateAndGet(Long.parseLong(path.substring(path.lastIndexOf('/') + 1)), Math::max);
+
+        send(HttpRequest.newBuilder(itemUri).header("Cookie", cookie).GET().build(), 200);
+    }
+
+    private void edit() throws FlowFailure, IOException, InterruptedException {
+        long itemId = randomItemId();
+        send(get("/items/" + itemId + "/edit"), 200);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        send(post("/items/" + itemId + "/edit", "id=" + itemId + "&" + form(
+                "edited item " + random.nextInt(1_000_000),
+                random.nextInt(10, 100) * 1000,
+                random.nextInt(1, 100)
+        )), 302);
+        send(get("/items/" + itemId), 200);
+    }
+
+    /**
+     * 가격 * 수량이 10000 이상이어야 검증을 통과한다.
+     */
+    private static String form(
+            String itemName,
+            int price,
+            int quantity
+    ) {
+        return "itemName=" + URLEncoder.encode(itemName, StandardCharsets.UTF_8)
+                + "&price=" + price
+                + "&quantity=" + quantity;
+    }
+
+    private long randomItemId() {
+        return ThreadLocalRandom.current().nextLong(firstItemId, lastItemId.get() + 1);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Cookie", cookie)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String form) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<Void> send(
+            HttpRequest request,
+            int expectedStatus
+    ) throws FlowFailure, IOException, InterruptedException {
+        requests++;
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != expectedStatus) {
+            throw new FlowFailure(request.method() + " " + request.uri().getPath() + " -> " + response.statusCode());
+        }
+        return response;
+    }
+
+    /**
+     * 기대한 것과 다른 응답, 메시지는 오류 종류별 집계의 키로 쓴다.
+     * 상품 ID 가 들어간 경로는 한 종류로 묶는다.
+     */
+    static class FlowFailure extends Exception {
+        FlowFailure(String reason) {
+            super(reason.replaceAll("/items/\\d+", "/items/{itemId}"), null, false, false);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package hello.springcoremvc26.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 부하 테스트 클라이언트가 반복하는 흐름
+ */
+enum LoadFlow {
+    /**
+     * 다시 로그인해서 새 세션을 받고 홈 화면을 본다.
+     */
+    LOGIN,
+    /**
+     * 상품 목록과 상품 하나를 본다.
+     */
+    BROWSE,
+    /**
+     * 등록 폼, 등록, 등록된 상품 화면
+     */
+    ADD,
+    /**
+     * 수정 폼, 수정, 수정된 상품 화면
+     */
+    EDIT;
+
+    /**
+     * 흐름별 가중치, 예) login:5,browse:70,add:10,edit:15
+     * <p>
+     * 합이 100 일 필요는 없고, 적지 않은 흐름은 실행하지 않는다.
+     */
+    static Map<LoadFlow, Integer> parseMix(String mix) {
+        Map<LoadFlow, Integer> weights = new EnumMap<>(LoadFlow.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("load.mix 형식은 flow:weight,... 입니다. entry = " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("가중치는 0 이상이어야 합니다. entry = " + entry);
+            }
+            weights.put(LoadFlow.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("load.mix 에 실행할 흐름이 없습니다. mix = " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * 가중치에 비례해서 흐름을 고른다.
+     */
+    static LoadFlow pick(
+            Map<LoadFlow, Integer> weights,
+            int totalWeight,
+            RandomGenerator random
+    ) {
+        int target = random.nextInt(totalWeight);
+        for (Map.Entry<LoadFlow, Integer> entry : weights.entrySet()) {
+            target -= entry.getValue();
+            if (target < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("total weight does not match: " + totalWeight);
+    }
+}
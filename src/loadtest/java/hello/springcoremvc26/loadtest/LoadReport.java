@@ -0,0 +1,49 @@
+package hello.springcoremvc26.loadtest;
+
+import java.util.Map;
+
+/**
+ * loadTest 결과, JSON 으로 저장한다.
+ *
+ * @param total  모든 흐름 합계
+ * @param errors 오류 종류(요청과 응답 상태, 예외) -> 횟수
+ */
+record LoadReport(
+        String startedAt,
+        int concurrency,
+        double warmupSeconds,
+        double durationSeconds,
+        Map<LoadFlow, Integer> mix,
+        Result total,
+        Map<LoadFlow, Result> flows,
+        Map<String, Long> errors
+) {
+    /**
+     * @param flows     실행한 흐름 수, 성공 + 실패
+     * @param requests  흐름들이 보낸 요청 수
+     * @param errors    실패한 흐름 수
+     * @param errorRate errors / flows
+     */
+    record Result(
+            long flows,
+            long requests,
+            long errors,
+            double errorRate,
+            double flowsPerSecond,
+            double requestsPerSecond,
+            Latency latencyMillis
+    ) {
+    }
+
+    /**
+     * 성공한 흐름의 지연시간(ms), 히스토그램 칸의 상한값이라 최대 약 6% 크게 나온다.
+     */
+    record Latency(
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max
+    ) {
+    }
+}
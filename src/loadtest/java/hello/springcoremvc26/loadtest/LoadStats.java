@@ -0,0 +1,55 @@
+package hello.springcoremvc26.loadtest;
+
+import hello.springcoremvc26.web.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 흐름 하나의 측정 구간 기록, 모든 클라이언트 스레드가 같이 쓴다.
+ * <p>
+ * 지연시간은 흐름 전체(요청 여러 개) 시간이고, 성공한 흐름만 기록한다.
+ */
+class LoadStats {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void success(long nanos, int requestCount) {
+        latency.record(nanos);
+        requests.add(requestCount);
+    }
+
+    void failure(int requestCount) {
+        errors.increment();
+        requests.add(requestCount);
+    }
+
+    LoadReport.Result result(Duration duration) {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        long succeeded = snapshot.getCount();
+        long failed = errors.sum();
+        long flows = succeeded + failed;
+        double seconds = duration.toNanos() / 1e9;
+
+        return new LoadReport.Result(
+                flows,
+                requests.sum(),
+                failed,
+                flows == 0 ? 0 : (double) failed / flows,
+                flows / seconds,
+                requests.sum() / seconds,
+                new LoadReport.Latency(
+                        millis(snapshot.percentile(50)),
+                        millis(snapshot.percentile(90)),
+                        millis(snapshot.percentile(99)),
+                        millis(snapshot.percentile(99.9)),
+                        millis(snapshot.getMax())
+                )
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
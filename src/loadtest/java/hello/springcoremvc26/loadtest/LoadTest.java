@@ -0,0 +1,214 @@
+package hello.springcoremvc26.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hello.springcoremvc26.SpringCoreMvc26Application;
+import hello.springcoremvc26.domain.item.Item;
+import hello.springcoremvc26.domain.item.ItemRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로그인 -> 상품 조회, 등록, 수정 흐름 부하 테스트
+ * <p>
+ * 애플리케이션을 임의 포트로 띄우고, concurrency 개의 클라이언트가 로그인한 뒤
+ * 가중치(mix)에 따라 흐름을 골라 반복한다. 필터, 인터셉터, ArgumentResolver, 컨트롤러, 타임리프를 모두 거친다.
+ * 워밍업 이후 구간의 처리량, 지연시간 백분위, 오류율을 흐름별로 JSON 파일에 남긴다.
+ * <p>
+ * LoadBenchmark 는 스레드 모드 비교용이고, 이 테스트는 운영 트래픽 비율을 재현하는 용도다.
+ * <p>
+ * 설정 (시스템 프로퍼티)
+ * <pre>
+ * load.concurrency 동시 클라이언트 수, 기본 32
+ * load.warmup      워밍업 시간, 기본 PT10S
+ * load.duration    측정 시간, 기본 PT30S
+ * load.mix         흐름별 가중치, 기본 login:5,browse:70,add:10,edit:15
+ * load.profiles    애플리케이션 프로필, 예) virtual
+ * load.report      결과 파일, 기본 load-test.json
+ * </pre>
+ */
+public class LoadTest {
+    private static final Duration RESULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<LoadFlow, Integer> mix;
+    private final int totalWeight;
+    private final String[] profiles;
+
+    private final Map<LoadFlow, LoadStats> stats = new EnumMap<>(LoadFlow.class);
+    private final LoadStats total = new LoadStats();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    LoadTest(
+            int concurrency,
+            Duration warmup,
+            Duration duration,
+            Map<LoadFlow, Integer> mix,
+            String[] profiles
+    ) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.profiles = profiles;
+        mix.keySet().forEach(flow -> stats.put(flow, new LoadStats()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        Map<LoadFlow, Integer> mix = LoadFlow.parseMix(System.getProperty("load.mix", "login:5,browse:70,add:10,edit:15"));
+        String profiles = System.getProperty("load.profiles", "");
+        Path reportFile = Path.of(System.getProperty("load.report", "load-test.json"));
+
+        LoadTest test = new LoadTest(
+                concurrency, warmup, duration, mix, profiles.isBlank() ? new String[0] : profiles.split(",")
+        );
+        LoadReport report = test.run();
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportFile.toFile(), report);
+
+        System.out.printf("%n%-8s %10s %10s %8s %10s %10s %10s%n",
+                "flow", "flows", "requests", "errors", "flows/s", "p50(ms)", "p99(ms)");
+        report.flows().forEach((flow, result) -> System.out.println(line(flow.name(), result)));
+        System.out.println(line("TOTAL", report.total()));
+        report.errors().forEach((reason, count) -> System.out.printf("error %s: %d%n", reason, count));
+        System.out.println("report: " + reportFile.toAbsolutePath());
+    }
+
+    LoadReport run() throws Exception {
+        Instant startedAt = Instant.now();
+        ConfigurableApplicationContext context = start();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            // 조회, 수정 대상은 시작할 때 있던 상품과 테스트 중에 등록된 상품
+            List<Item> items = context.getBean(ItemRepository.class).findAll();
+            long firstItemId = items.stream().mapToLong(Item::getId).min().orElseThrow();
+            AtomicLong lastItemId = new AtomicLong(items.stream().mapToLong(Item::getId).max().orElseThrow());
+
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long measureEnd = measureStart + duration.toNanos();
+
+            List<Future<?>> futures = new ArrayList<>();
+            URI baseUri = URI.create("http://localhost:" + port);
+            for (int i = 0; i < concurrency; i++) {
+                LoadClient loadClient = new LoadClient(client, baseUri, firstItemId, lastItemId);
+                futures.add(clients.submit(() -> drive(loadClient, measureStart, measureEnd)));
+            }
+            // 요청 하나가 끝나지 않아도 측정 시간에 여유를 더한 만큼만 기다린다.
+            long deadline = measureEnd + RESULT_TIMEOUT.toNanos();
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+
+            Map<LoadFlow, LoadReport.Result> flows = new EnumMap<>(LoadFlow.class);
+            stats.forEach((flow, flowStats) -> flows.put(flow, flowStats.result(duration)));
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((reason, count) -> errorCounts.put(reason, count.sum()));
+
+            return new LoadReport(
+                    startedAt.toString(),
+                    concurrency,
+                    warmup.toNanos() / 1e9,
+                    duration.toNanos() / 1e9,
+                    mix,
+                    total.result(duration),
+                    flows,
+                    errorCounts
+            );
+        } finally {
+            clients.shutdownNow();
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(SpringCoreMvc26Application.class)
+                .properties(
+                        "server.port=0",
+                        "app.login.throttle.enabled=false",
+                        "logging.level.request-trace=WARN",
+                        "logging.level.hello.springcoremvc26=WARN"
+                )
+                .profiles(profiles)
+                .run();
+    }
+
+    /**
+     * 클라이언트 하나의 반복, 측정 구간 안에서 시작하고 끝난 흐름만 기록한다.
+     */
+    private void drive(
+            LoadClient client,
+            long measureStart,
+            long measureEnd
+    ) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < measureEnd) {
+            LoadFlow flow = LoadFlow.pick(mix, totalWeight, random);
+            long start = System.nanoTime();
+            String error = null;
+            try {
+                client.run(flow);
+            } catch (LoadClient.FlowFailure e) {
+                error = e.getMessage();
+            } catch (IOException e) {
+                error = e.getClass().getSimpleName();
+            }
+
+            long end = System.nanoTime();
+            if (start < measureStart || end > measureEnd) {
+                continue;
+            }
+            int requests = client.getRequests();
+            if (error == null) {
+                stats.get(flow).success(end - start, requests);
+                total.success(end - start, requests);
+            } else {
+                stats.get(flow).failure(requests);
+                total.failure(requests);
+                errors.computeIfAbsent(flow + " " + error, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private static String line(String name, LoadReport.Result result) {
+        return String.format("%-8s %10d %10d %8d %10.1f %10.2f %10.2f",
+                name, result.flows(), result.requests(), result.errors(), result.flowsPerSecond(),
+                result.latencyMillis().p50(), result.latencyMillis().p99());
+    }
+}
@@ -2,8 +2,10 @@ package hello.springcoremvc26;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SpringCoreMvc26Application {
 
     public static void main(String[] args) {
@@ -16,14 +16,20 @@ public class TestDataInit {
 
     /**
      * 테스트용 데이터 추가
+     * <p>
+     * 저널에서 복구된 데이터가 있으면 다시 넣지 않는다.
      */
     @PostConstruct
     public void init() {
         // 아이템
-        itemRepository.save(new Item("itemA", 10000, 10));
-        itemRepository.save(new Item("itemB", 20000, 20));
+        if (itemRepository.findAll().isEmpty()) {
+            itemRepository.save(new Item("itemA", 10000, 10));
+            itemRepository.save(new Item("itemB", 20000, 20));
+        }
 
         // 맴버
-        memberRepository.save(new Member("test", "테스터", "test!"));
+        if (memberRepository.findAll().isEmpty()) {
+            memberRepository.save(new Member("test", "테스터", "test!"));
+        }
     }
 }
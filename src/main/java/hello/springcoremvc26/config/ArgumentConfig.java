@@ -1,6 +1,8 @@
 package hello.springcoremvc26.config;
 
+import hello.springcoremvc26.domain.member.MemberCache;
 import hello.springcoremvc26.web.argumentresolver.LoginMemberArgumentResolver;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -8,11 +10,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import java.util.List;
 
 @Configuration
+@RequiredArgsConstructor
 public class ArgumentConfig implements WebMvcConfigurer {
+    private final MemberCache memberCache;
+
     @Override
     public void addArgumentResolvers(
             List<HandlerMethodArgumentResolver> resolvers
     ) {
-        resolvers.add(new LoginMemberArgumentResolver());
+        resolvers.add(new LoginMemberArgumentResolver(memberCache));
     }
 }
@@ -0,0 +1,49 @@
+package hello.springcoremvc26.config;
+
+import hello.springcoremvc26.web.asset.AssetManifest;
+import hello.springcoremvc26.web.filter.AssetCacheFilter;
+import jakarta.servlet.Filter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+@Configuration
+public class AssetConfig implements WebMvcConfigurer {
+    /**
+     * 템플릿에서 @assets 로 사용
+     */
+    @Bean
+    public AssetManifest assets() {
+        return new AssetManifest();
+    }
+
+    /**
+     * /assets/** 는 내용 해시가 붙은 파일이므로 1년 동안 캐시한다.
+     * 브라우저가 gzip 을 받으면 미리 압축해둔 .gz 파일을 그대로 보낸다.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(AssetManifest.URL_PREFIX + "**")
+                .addResourceLocations("classpath:/assets/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> assetCacheFilter() {
+        FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+
+        bean.setFilter(new AssetCacheFilter());
+        bean.setOrder(0);
+        bean.addUrlPatterns(AssetManifest.URL_PREFIX + "*");
+
+        return bean;
+    }
+}
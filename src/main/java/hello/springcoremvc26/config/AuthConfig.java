@@ -0,0 +1,17 @@
+package hello.springcoremvc26.config;
+
+import hello.springcoremvc26.web.auth.AuthProperties;
+import hello.springcoremvc26.web.auth.PublicPathMatcher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuthConfig {
+    /**
+     * app.auth.public-paths 를 시작할 때 한 번만 컴파일
+     */
+    @Bean
+    public PublicPathMatcher publicPathMatcher(AuthProperties authProperties) {
+        return new PublicPathMatcher(authProperties.getPublicPaths());
+    }
+}
@@ -1,8 +1,14 @@
 package hello.springcoremvc26.config;
 
+import hello.springcoremvc26.web.auth.AuthProperties;
+import hello.springcoremvc26.web.auth.PublicPathMatcher;
 import hello.springcoremvc26.web.filter.LogFilter;
 import hello.springcoremvc26.web.filter.LoginCheckFilter;
+import hello.springcoremvc26.web.filter.SessionCreationFilter;
+import hello.springcoremvc26.web.id.IdGenerator;
+import hello.springcoremvc26.web.metrics.SessionCreationMetrics;
 import jakarta.servlet.Filter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,23 +16,45 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class FilterConfig {
     @Bean
-    public FilterRegistrationBean<Filter> logFilter() {
+    public FilterRegistrationBean<Filter> logFilter(
+            @Qualifier("requestIdGenerator") IdGenerator requestIdGenerator
+    ) {
         FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
 
-        bean.setFilter(new LogFilter());
+        bean.setFilter(new LogFilter(requestIdGenerator));
         bean.setOrder(1);
         bean.addUrlPatterns("/*");
 
         return bean;
     }
 
+    /**
+     * app.auth.enforcement=filter 일 때만 동작한다.
+     */
     @Bean
-    public FilterRegistrationBean<Filter> loginCheckFilter() {
+    public FilterRegistrationBean<Filter> loginCheckFilter(
+            PublicPathMatcher publicPathMatcher,
+            AuthProperties authProperties
+    ) {
         FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
 
-        bean.setFilter(new LoginCheckFilter());
+        bean.setFilter(new LoginCheckFilter(publicPathMatcher));
         bean.setOrder(2);
         bean.addUrlPatterns("/*");
+        bean.setEnabled(authProperties.getEnforcement() == AuthProperties.Enforcement.FILTER);
+
+        return bean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> sessionCreationFilter(
+            SessionCreationMetrics sessionCreationMetrics
+    ) {
+        FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+
+        bean.setFilter(new SessionCreationFilter(sessionCreationMetrics));
+        bean.setOrder(3);
+        bean.addUrlPatterns("/*");
 
         return bean;
     }
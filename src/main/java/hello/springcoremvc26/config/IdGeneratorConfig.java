@@ -0,0 +1,26 @@
+package hello.springcoremvc26.config;
+
+import hello.springcoremvc26.web.id.IdGenerator;
+import hello.springcoremvc26.web.id.MonotonicRequestIdGenerator;
+import hello.springcoremvc26.web.id.SecureSessionIdGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+    /**
+     * 세션 ID, 추측할 수 없어야 한다.
+     */
+    @Bean
+    public IdGenerator sessionIdGenerator() {
+        return new SecureSessionIdGenerator();
+    }
+
+    /**
+     * 요청 로그 ID, 로그 추적용이므로 가볍게 만든다.
+     */
+    @Bean
+    public IdGenerator requestIdGenerator() {
+        return new MonotonicRequestIdGenerator();
+    }
+}
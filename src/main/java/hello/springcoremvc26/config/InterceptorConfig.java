@@ -1,26 +1,36 @@
 package hello.springcoremvc26.config;
 
+import hello.springcoremvc26.web.auth.AuthProperties;
+import hello.springcoremvc26.web.auth.PublicPathMatcher;
 import hello.springcoremvc26.web.interceptor.LogInterceptor;
 import hello.springcoremvc26.web.interceptor.LoginCheckInterceptor;
+import hello.springcoremvc26.web.metrics.HandlerMetrics;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class InterceptorConfig implements WebMvcConfigurer {
+    private final PublicPathMatcher publicPathMatcher;
+    private final AuthProperties authProperties;
+    private final HandlerMetrics handlerMetrics;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new LogInterceptor())
+        registry.addInterceptor(new LogInterceptor(handlerMetrics))
                 .order(1)
                 .addPathPatterns("/**") // 모두 허용
-                .excludePathPatterns("/css/**", "/*.ico", "/error"); // BlackList
+                .excludePathPatterns("/assets/**", "/*.ico", "/error"); // BlackList
 
+        // app.auth.enforcement=interceptor 일 때만 등록, 기본은 LoginCheckFilter
+        if (authProperties.getEnforcement() != AuthProperties.Enforcement.INTERCEPTOR) {
+            return;
+        }
         registry.addInterceptor(new LoginCheckInterceptor())
                 .order(2)
                 .addPathPatterns("/**")
-                .excludePathPatterns(
-                        "/", "/members/css", "/login",
-                        "/logout", "/css/**", "*.ico", "/error"
-                );
+                .excludePathPatterns(publicPathMatcher.getPatterns()); // app.auth.public-paths
     }
 }
@@ -0,0 +1,22 @@
+package hello.springcoremvc26.config;
+
+import hello.springcoremvc26.domain.item.store.ColumnarItemStore;
+import hello.springcoremvc26.domain.item.store.HeapItemStore;
+import hello.springcoremvc26.domain.item.store.ItemStore;
+import hello.springcoremvc26.domain.item.store.ItemStoreProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ItemStoreConfig {
+    /**
+     * app.item.store.type 에 따라 ItemRepository 의 저장소 선택
+     */
+    @Bean
+    public ItemStore itemStore(ItemStoreProperties properties) {
+        return switch (properties.getType()) {
+            case HEAP -> new HeapItemStore();
+            case COLUMNAR -> new ColumnarItemStore();
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package hello.springcoremvc26.config;
+
+import hello.springcoremvc26.domain.journal.Journal;
+import hello.springcoremvc26.domain.journal.JournalProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * app.journal.enabled=true 일 때 ItemRepository, MemberRepository 에 저널을 붙인다.
+ * 저널은 저장소가 만들어질 때 열리고, 컨텍스트가 닫힐 때 close() 된다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.journal", name = "enabled", havingValue = "true")
+public class JournalConfig {
+    @Bean
+    public Journal itemJournal(JournalProperties properties) {
+        return new Journal(Path.of(properties.getDirectory()), "items", properties.getSnapshotEvery());
+    }
+
+    @Bean
+    public Journal memberJournal(JournalProperties properties) {
+        return new Journal(Path.of(properties.getDirectory()), "members", properties.getSnapshotEvery());
+    }
+}
@@ -0,0 +1,30 @@
+package hello.springcoremvc26.config;
+
+import hello.springcoremvc26.web.session.SessionProperties;
+import hello.springcoremvc26.web.session.store.CompactSessionValueCodec;
+import hello.springcoremvc26.web.session.store.HeapSessionStore;
+import hello.springcoremvc26.web.session.store.MappedFileSessionStore;
+import hello.springcoremvc26.web.session.store.SessionStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SessionStoreConfig {
+    /**
+     * app.session.store.type 에 따라 SessionManager 의 저장소 선택
+     */
+    @Bean
+    public SessionStore sessionStore(SessionProperties properties) {
+        SessionProperties.Store store = properties.getStore();
+        return switch (store.getType()) {
+            case HEAP -> new HeapSessionStore();
+            case MAPPED -> new MappedFileSessionStore(
+                    Path.of(store.getPath()),
+                    Math.toIntExact(store.getCapacity().toBytes()),
+                    new CompactSessionValueCodec()
+            );
+        };
+    }
+}
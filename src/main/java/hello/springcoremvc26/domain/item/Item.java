@@ -11,6 +11,11 @@ public class Item {
     private Integer price;
     private Integer quantity;
 
+    /**
+     * 수정될 때마다 ItemRepository 가 올린다.
+     */
+    private long version;
+
     public Item() {
     }
 
@@ -0,0 +1,56 @@
+package hello.springcoremvc26.domain.item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이지네이션 커서
+ * <p>
+ * 이전 페이지 마지막 상품의 (정렬 값, ID) 를 담는다. 다음 페이지는 이 위치 바로 뒤부터 읽으므로,
+ * 앞쪽 페이지를 건너뛰는 비용이 없고 중간에 상품이 추가되어도 행이 밀리거나 중복되지 않는다.
+ *
+ * @param sort  커서를 만든 정렬 기준, 다른 정렬에는 쓸 수 없다.
+ * @param value 마지막 상품의 정렬 값
+ * @param id    마지막 상품의 ID
+ */
+public record ItemCursor(
+        ItemSort sort,
+        Comparable<?> value,
+        long id
+) {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static ItemCursor of(ItemSort sort, Item item) {
+        return new ItemCursor(sort, sort.valueOf(item), item.getId());
+    }
+
+    /**
+     * URL 에 그대로 넣을 수 있는 문자열로 변환
+     * <p>
+     * 형식은 {@code 정렬:ID:값} 이고, 값이 null 이면 마지막 부분을 비운다. 값이 있으면 앞에 '=' 를 붙여 빈 문자열과 구분한다.
+     */
+    public String encode() {
+        String raw = sort.name() + ":" + id + ":" + (value == null ? "" : "=" + value);
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * encode() 로 만든 문자열을 다시 커서로 변환
+     *
+     * @param token 커서 문자열
+     * @param sort  현재 요청의 정렬 기준
+     * @throws IllegalArgumentException 형식이 잘못되었거나 다른 정렬 기준으로 만든 커서
+     */
+    public static ItemCursor decode(String token, ItemSort sort) {
+        String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(":", 3);
+        if (parts.length != 3 || !parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("잘못된 커서: " + token);
+        }
+
+        long id = Long.parseLong(parts[1]);
+        Comparable<?> value = parts[2].isEmpty() ? null : sort.parse(parts[2].substring(1));
+        return new ItemCursor(sort, value, id);
+    }
+}
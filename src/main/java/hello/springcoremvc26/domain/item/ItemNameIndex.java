@@ -0,0 +1,217 @@
+package hello.springcoremvc26.domain.item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 상품명 토큰 역색인
+ * <p>
+ * 상품명을 글자, 숫자가 아닌 문자로 나눈 소문자 토큰마다 상품 ID 집합(posting)을 둔다.
+ * 토큰은 정렬된 맵에 있으므로 접두어로 시작하는 토큰들을 범위 조회로 찾고, 각 posting 은 ID 순서로 정렬되어 있다.
+ * <p>
+ * 추가, 제거는 ItemRepository 가 상품의 compute 안에서 호출한다.
+ * 한 번 생긴 토큰은 비어도 지우지 않는다. 토큰 수는 상품 수가 아니라 어휘 수에 비례한다.
+ */
+class ItemNameIndex {
+    private static final String[] NO_TOKENS = new String[0];
+
+    private final ConcurrentSkipListMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+
+    void add(Item item) {
+        for (String token : tokens(item.getItemName())) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(item.getId());
+        }
+    }
+
+    void remove(Item item) {
+        for (String token : tokens(item.getItemName())) {
+            Postings ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(item.getId());
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * 검색어의 모든 토큰을 접두어로 가질 수 있는 상품 ID 후보, ID 순서
+     * <p>
+     * 후보가 가장 적은 검색어 토큰 하나로만 후보를 만들고, 나머지 토큰은 호출한 쪽이 상품명으로 다시 확인한다.
+     * 인덱스는 약한 일관성을 가지므로 후보는 항상 현재 상품으로 다시 확인해야 한다.
+     *
+     * @param queryTokens 검색어 토큰, tokens() 로 만든 것
+     * @param afterId     이 ID 다음부터
+     */
+    Iterator<Long> candidates(String[] queryTokens, long afterId) {
+        Collection<Postings> narrowest = null;
+        long narrowestCount = Long.MAX_VALUE;
+        for (String token : queryTokens) {
+            Collection<Postings> matched = withPrefix(token).values();
+            long count = 0;
+            for (Postings ids : matched) {
+                count += ids.size();
+            }
+            if (count < narrowestCount) {
+                narrowest = matched;
+                narrowestCount = count;
+            }
+        }
+        if (narrowest == null || narrowestCount == 0) {
+            return new MergedIterator(List.of());
+        }
+
+        List<Iterator<Long>> sources = new ArrayList<>();
+        for (Postings ids : narrowest) {
+            sources.add(ids.ids.tailSet(afterId, false).iterator());
+        }
+        return sources.size() == 1 ? sources.get(0) : new MergedIterator(sources);
+    }
+
+    /**
+     * 인덱스에 있는 토큰 수
+     */
+    int tokenCount() {
+        return postings.size();
+    }
+
+    /**
+     * 상품명이 검색어의 모든 토큰을 각각 어떤 토큰의 접두어로 가지는지
+     */
+    static boolean matches(String name, String[] queryTokens) {
+        String[] nameTokens = tokens(name);
+        for (String query : queryTokens) {
+            boolean found = false;
+            for (String token : nameTokens) {
+                if (token.startsWith(query)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 소문자로 바꾸고 글자, 숫자가 아닌 문자로 나눈 중복 없는 토큰
+     */
+    static String[] tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_TOKENS;
+        }
+
+        // 저장, 수정마다 호출되므로 정규식 없이 한 번 훑는다.
+        String lower = text.toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean part = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (part && start < 0) {
+                start = i;
+            } else if (!part && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens.toArray(NO_TOKENS);
+    }
+
+    private NavigableMap<String, Postings> withPrefix(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * 토큰 하나의 상품 ID 집합, size() 가 O(n) 이므로 개수를 따로 센다.
+     */
+    private static class Postings {
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        void add(long id) {
+            if (ids.add(id)) {
+                count.incrementAndGet();
+            }
+        }
+
+        void remove(long id) {
+            if (ids.remove(id)) {
+                count.decrementAndGet();
+            }
+        }
+
+        int size() {
+            return count.get();
+        }
+    }
+
+    /**
+     * 여러 정렬된 ID 이터레이터를 중복 없이 ID 순서로 합친다.
+     */
+    private static class MergedIterator implements Iterator<Long> {
+        private final PriorityQueue<Head> heads = new PriorityQueue<>();
+        private long last = Long.MIN_VALUE;
+        private Long next;
+
+        MergedIterator(List<Iterator<Long>> sources) {
+            for (Iterator<Long> source : sources) {
+                if (source.hasNext()) {
+                    heads.add(new Head(source.next(), source));
+                }
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Long next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Long result = next;
+            advance();
+            return result;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !heads.isEmpty()) {
+                Head head = heads.poll();
+                if (head.id > last) {
+                    next = head.id;
+                    last = head.id;
+                }
+                if (head.source.hasNext()) {
+                    heads.add(new Head(head.source.next(), head.source));
+                }
+            }
+        }
+
+        private record Head(long id, Iterator<Long> source) implements Comparable<Head> {
+            @Override
+            public int compareTo(Head other) {
+                return Long.compare(id, other.id);
+            }
+        }
+    }
+}
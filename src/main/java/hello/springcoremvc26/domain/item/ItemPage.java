@@ -0,0 +1,18 @@
+package hello.springcoremvc26.domain.item;
+
+import java.util.List;
+
+/**
+ * 상품 목록의 한 페이지
+ *
+ * @param items 이번 페이지의 상품
+ * @param next  다음 페이지 커서, 마지막 페이지면 null
+ */
+public record ItemPage(
+        List<Item> items,
+        ItemCursor next
+) {
+    public boolean hasNext() {
+        return next != null;
+    }
+}
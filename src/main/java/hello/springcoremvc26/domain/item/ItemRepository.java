@@ -1,39 +1,528 @@
 package hello.springcoremvc26.domain.item;
 
+import hello.springcoremvc26.domain.item.store.HeapItemStore;
+import hello.springcoremvc26.domain.item.store.ItemStore;
+import hello.springcoremvc26.domain.journal.Journal;
+import hello.springcoremvc26.domain.journal.JournalRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * 동시성을 고려한 상품 저장소
+ * <p>
+ * ID 는 AtomicLong 으로 할당하고, 상품은 ItemStore 에 보관한다.
+ * 기본은 Item 객체를 그대로 두는 HeapItemStore 이고, 상품이 아주 많으면 힙 밖의 컬럼에 값만 두는 ColumnarItemStore 를 쓴다.
+ * findAll() 은 변경이 있을 때만 다시 만들어지는 불변 스냅샷을 반환하고, 스냅샷의 상품은 저장소와 분리된 복사본이다.
+ * 그 밖의 조회 결과는 저장소의 상품을 그대로 넘기므로, ColumnarItemStore 면 현재 값을 보여주는 뷰다.
+ * <p>
+ * 정렬 기준마다 (정렬 값, ID) 순서의 skip list 인덱스를 함께 유지해서,
+ * findPage() 는 전체를 복사하거나 정렬하지 않고 커서 위치부터 필요한 만큼만 읽는다.
+ * 상품명 토큰 역색인도 같이 유지해서, search() 는 조건에 맞는 인덱스 범위만 읽는다.
+ * 인덱스에는 키만 두고 상품은 읽을 때 ItemStore 에서 찾으므로, 인덱스가 상품 객체를 붙잡지 않는다.
+ * <p>
+ * 저널이 있으면 저장, 수정, 전체 삭제를 레코드로 남기고 디스크 반영을 기다린 뒤 반환한다.
+ * 수정 레코드는 상품 전체와 version 을 담으므로, 복구할 때는 version 이 더 낮은 레코드를 건너뛴다.
+ * 전체 삭제는 저장, 수정과 겹치지 않게 해서, 메모리에 반영된 순서와 로그의 순서가 같게 한다.
+ */
 @Repository
 public class ItemRepository {
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    private static final byte PUT = 1;
+    private static final byte CLEAR = 2;
+    private static final byte SEQUENCE = 3;
+
+    /**
+     * 검색 한 페이지에서 확인하는 후보 수의 상한
+     */
+    static final int SEARCH_SCAN_LIMIT = 1024;
+
+    private final ItemStore store;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 변경 횟수, 스냅샷이 최신인지 판단하는 기준
+     */
+    private final AtomicLong modCount = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * 정렬 기준 -> (정렬 값, ID) 순서의 인덱스
+     */
+    private final Map<ItemSort, NavigableSet<SortKey>> indexes = new EnumMap<>(ItemSort.class);
+    private final ItemNameIndex nameIndex = new ItemNameIndex();
+
+    /**
+     * 저장, 수정은 read lock 으로 동시에 하고, 전체 삭제만 write lock 으로 막는다.
+     * 레코드 추가까지 lock 안에서 하므로 CLEAR 앞뒤의 레코드가 메모리 반영 순서와 어긋나지 않는다.
+     * 디스크 반영은 lock 밖에서 기다린다.
+     */
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+    /**
+     * null 이면 메모리에만 보관
+     */
+    private final Journal journal;
+
+    public ItemRepository() {
+        this((Journal) null);
+    }
+
+    @Autowired
+    public ItemRepository(
+            ItemStore store,
+            @Qualifier("itemJournal") Optional<Journal> journal
+    ) {
+        this(store, journal.orElse(null));
+    }
+
+    public ItemRepository(Journal journal) {
+        this(new HeapItemStore(), journal);
+    }
+
+    /**
+     * 저널에 남아있는 상품을 복구한 뒤 기록을 시작한다.
+     *
+     * @param store 비어 있는 저장소
+     */
+    public ItemRepository(
+            ItemStore store,
+            Journal journal
+    ) {
+        for (ItemSort sort : ItemSort.values()) {
+            indexes.put(sort, new ConcurrentSkipListSet<>());
+        }
+
+        this.store = store;
+        this.journal = journal;
+        if (journal != null) {
+            journal.open(this::replay, this::writeSnapshot);
+            modCount.incrementAndGet();
+        }
+    }
 
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        item.setId(sequence.incrementAndGet());
+        // 다른 스레드에 노출되기 전에 레코드를 만든다.
+        byte[] record = encode(item);
+        Journal.Commit commit;
+        clearLock.readLock().lock();
+        try {
+            // 인덱스 등록이 같은 상품의 update 와 섞이지 않도록 저장소 안에서 처리
+            store.insert(item, () -> addToIndexes(item));
+            modCount.incrementAndGet();
+            commit = append(record);
+        } finally {
+            clearLock.readLock().unlock();
+        }
+        commit.await();
         return item;
     }
 
+    /**
+     * 여러 상품을 한 번에 저장
+     * <p>
+     * ID 는 한 번에 연속으로 할당하고, 변경 횟수도 한 번만 올린다.
+     */
+    public List<Item> saveAll(List<Item> items) {
+        long id = sequence.getAndAdd(items.size());
+        Journal.Commit commit = Journal.Commit.DONE;
+        clearLock.readLock().lock();
+        try {
+            for (Item item : items) {
+                item.setId(++id);
+                byte[] record = encode(item);
+                store.insert(item, () -> addToIndexes(item));
+                commit = append(record);
+            }
+            modCount.incrementAndGet();
+        } finally {
+            clearLock.readLock().unlock();
+        }
+        // 레코드는 순서대로 기록되므로 마지막 것만 기다리면 된다.
+        commit.await();
+        return items;
+    }
+
+    /**
+     * @return 없으면 null, ColumnarItemStore 면 저장소의 현재 값을 보여주는 뷰
+     */
     public Item findById(Long id) {
         return store.get(id);
     }
 
+    /**
+     * 저장된 모든 상품의 불변 스냅샷
+     * <p>
+     * 상품은 저장소와 분리된 Item 으로 복사하므로, 스냅샷을 만든 뒤의 수정, 삭제는 스냅샷에 보이지 않는다.
+     * 마지막 스냅샷 이후 변경이 없으면 복사 없이 그대로 반환한다.
+     *
+     * @return 수정할 수 없는 상품 List
+     */
     public List<Item> findAll() {
-        return new ArrayList<>(store.values());
+        // 복사 전에 버전을 먼저 읽는다.
+        // 복사 도중에 들어온 변경은 modCount 를 올리므로, 다음 조회에서 다시 만들어진다.
+        long version = modCount.get();
+        Snapshot current = snapshot.get();
+        if (current.version() == version) {
+            return current.items();
+        }
+
+        // 상품마다 compute 안에서 복사해서 수정 도중의 값이 섞이지 않게 한다.
+        List<Item> items = new ArrayList<>(store.size());
+        store.forEach(stored -> store.computeIfPresent(stored.getId(), item -> items.add(copyOf(item))));
+        Snapshot rebuilt = new Snapshot(version, Collections.unmodifiableList(items));
+        snapshot.compareAndSet(current, rebuilt);
+        return rebuilt.items();
+    }
+
+    /**
+     * ID 순서로 모든 상품을 하나씩 넘긴다. 목록을 만들지 않으므로 상품 수와 상관없이 메모리를 쓰지 않는다.
+     * 도중에 추가, 수정된 상품은 포함될 수도 있고 아닐 수도 있다.
+     */
+    public void forEach(Consumer<? super Item> action) {
+        itemsOf(indexes.get(ItemSort.ID)).forEach(action);
+    }
+
+    /**
+     * 정렬된 상품 목록 한 페이지
+     * <p>
+     * 커서 바로 다음 상품부터 size 개를 읽는다. 한 개를 더 읽어서 다음 페이지가 있는지 판단한다.
+     * 인덱스는 약한 일관성을 가지므로, 읽는 도중의 변경은 반영될 수도 있고 아닐 수도 있다.
+     *
+     * @param sort  정렬 기준
+     * @param after 이전 페이지 커서, 첫 페이지면 null
+     * @param size  페이지 크기
+     * @return 상품 목록과 다음 페이지 커서
+     */
+    public ItemPage findPage(
+            ItemSort sort,
+            ItemCursor after,
+            int size
+    ) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        if (after != null && after.sort() != sort) {
+            throw new IllegalArgumentException("cursor sort " + after.sort() + " does not match " + sort);
+        }
+
+        NavigableSet<SortKey> index = indexes.get(sort);
+        if (after != null) {
+            index = index.tailSet(new SortKey(after.value(), after.id()), false);
+        }
+
+        List<Item> items = new ArrayList<>(size);
+        Iterator<Item> it = itemsOf(index).iterator();
+        while (it.hasNext() && items.size() < size) {
+            items.add(it.next());
+        }
+
+        ItemCursor next = it.hasNext() ? ItemCursor.of(sort, items.get(items.size() - 1)) : null;
+        return new ItemPage(items, next);
     }
 
+    /**
+     * 상품 검색 한 페이지
+     * <p>
+     * 후보는 search.sort() 의 인덱스 하나에서만 읽는다. 상품명 조건이 있으면 역색인의 후보를,
+     * 없으면 가격이나 수량 범위에 해당하는 인덱스 구간을 읽고, 나머지 조건은 후보마다 확인한다.
+     * <p>
+     * 나머지 조건에 맞는 후보가 드물면 구간 전체를 읽게 되므로, 한 페이지에서는 후보를 SEARCH_SCAN_LIMIT 개까지만 확인한다.
+     * 상한에 닿으면 그때까지 찾은 상품과 마지막으로 확인한 후보의 커서를 돌려준다.
+     * 그래서 다음 페이지가 있어도 size 보다 적거나 빈 페이지가 올 수 있다.
+     *
+     * @param search 검색 조건
+     * @param after  이전 페이지 커서, search.sort() 로 만든 것이어야 한다.
+     * @param size   페이지 크기
+     * @return 조건에 맞는 상품 목록과 다음 페이지 커서
+     */
+    public ItemPage search(
+            ItemSearch search,
+            ItemCursor after,
+            int size
+    ) {
+        ItemSort sort = search.sort();
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        if (after != null && after.sort() != sort) {
+            throw new IllegalArgumentException("cursor sort " + after.sort() + " does not match " + sort);
+        }
+
+        if (search.hasEmptyRange()) {
+            return new ItemPage(List.of(), null);
+        }
+
+        String[] nameTokens = search.nameTokens();
+        Stream<Item> candidates;
+        if (nameTokens.length > 0) {
+            Iterator<Long> ids = nameIndex.candidates(nameTokens, after == null ? Long.MIN_VALUE : after.id());
+            candidates = StreamSupport.stream(Spliterators.spliteratorUnknownSize(ids, Spliterator.ORDERED), false)
+                    .map(store::get)
+                    .filter(Objects::nonNull);
+        } else {
+            NavigableSet<SortKey> index = rangeOf(indexes.get(sort), search, sort, after);
+            if (index == null) {
+                return new ItemPage(List.of(), null);
+            }
+            candidates = itemsOf(index);
+        }
+
+        List<Item> items = new ArrayList<>(size);
+        Item last = null;
+        Iterator<Item> it = candidates.iterator();
+        for (int scanned = 0; it.hasNext(); scanned++) {
+            if (scanned == SEARCH_SCAN_LIMIT) {
+                // 남은 후보는 다음 페이지에서 이어서 확인한다.
+                return new ItemPage(items, ItemCursor.of(sort, last));
+            }
+            Item item = it.next();
+            if (search.matches(item, nameTokens)) {
+                if (items.size() == size) {
+                    // 한 개를 더 찾았으므로 다음 페이지가 있다.
+                    return new ItemPage(items, ItemCursor.of(sort, items.get(size - 1)));
+                }
+                items.add(item);
+            }
+            last = item;
+        }
+        return new ItemPage(items, null);
+    }
+
+    /**
+     * 상품 수정
+     * <p>
+     * 같은 상품에 대한 동시 수정이 섞이지 않도록 computeIfPresent 안에서 값을 바꾼다.
+     */
     public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        byte[][] record = new byte[1][];
+        Journal.Commit commit = Journal.Commit.DONE;
+        clearLock.readLock().lock();
+        try {
+            Item updated = store.computeIfPresent(itemId, findItem -> {
+                // 정렬 값이 바뀌므로 인덱스에서 빼고 바꾼 뒤 다시 넣는다.
+                removeFromIndexes(findItem);
+                findItem.setItemName(updateParam.getItemName());
+                findItem.setPrice(updateParam.getPrice());
+                findItem.setQuantity(updateParam.getQuantity());
+                findItem.setVersion(findItem.getVersion() + 1);
+                addToIndexes(findItem);
+                // 다른 수정과 섞이지 않은 상태를 기록한다.
+                record[0] = encode(findItem);
+            });
+
+            if (updated != null) {
+                modCount.incrementAndGet();
+                commit = append(record[0]);
+            }
+        } finally {
+            clearLock.readLock().unlock();
+        }
+        commit.await();
+    }
+
+    /**
+     * 저장소 전체의 변경 표시, 상품이 추가, 수정, 삭제될 때마다 바뀐다.
+     * 목록 화면의 ETag 처럼 전체 내용이 바뀌었는지만 알면 될 때 쓴다.
+     */
+    public long getModificationStamp() {
+        return modCount.get();
     }
 
     public void clearStore() {
-        store.clear();
+        Journal.Commit commit;
+        clearLock.writeLock().lock();
+        try {
+            store.clear();
+            indexes.values().forEach(NavigableSet::clear);
+            nameIndex.clear();
+            modCount.incrementAndGet();
+            commit = append(new byte[]{CLEAR});
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+        commit.await();
+    }
+
+    private Journal.Commit append(byte[] record) {
+        return journal == null ? Journal.Commit.DONE : journal.append(record);
+    }
+
+    /**
+     * 저널 레코드 적용, 생성자에서 복구할 때만 호출된다.
+     */
+    private void replay(ByteBuffer buffer) {
+        JournalRecord.Reader reader = JournalRecord.reader(buffer);
+        switch (reader.type()) {
+            case PUT -> restore(decode(reader));
+            case CLEAR -> {
+                store.clear();
+                indexes.values().forEach(NavigableSet::clear);
+                nameIndex.clear();
+            }
+            case SEQUENCE -> sequence.accumulateAndGet(reader.getLong(), Math::max);
+            default -> throw new IllegalStateException("unknown item record type: " + reader.type());
+        }
+    }
+
+    private void restore(Item item) {
+        sequence.accumulateAndGet(item.getId(), Math::max);
+
+        Item current = store.get(item.getId());
+        if (current != null) {
+            if (current.getVersion() > item.getVersion()) {
+                return;
+            }
+            removeFromIndexes(current);
+        }
+        store.put(item);
+        addToIndexes(item);
+    }
+
+    /**
+     * 스냅샷, 발급된 ID 와 현재 상품 전체
+     * <p>
+     * 상품마다 compute 안에서 레코드를 만들어서 수정 도중의 값이 기록되지 않게 한다.
+     */
+    private void writeSnapshot(Consumer<byte[]> sink) {
+        sink.accept(JournalRecord.writer(SEQUENCE).putLong(sequence.get()).toByteArray());
+
+        byte[][] record = new byte[1][];
+        store.forEach(current -> {
+            record[0] = null;
+            store.computeIfPresent(current.getId(), item -> record[0] = encode(item));
+            if (record[0] != null) {
+                sink.accept(record[0]);
+            }
+        });
+    }
+
+    private byte[] encode(Item item) {
+        if (journal == null) {
+            return null;
+        }
+        return JournalRecord.writer(PUT)
+                .putLong(item.getId())
+                .putLong(item.getVersion())
+                .putString(item.getItemName())
+                .putInteger(item.getPrice())
+                .putInteger(item.getQuantity())
+                .toByteArray();
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+
+    private static Item decode(JournalRecord.Reader reader) {
+        long id = reader.getLong();
+        long version = reader.getLong();
+        Item item = new Item(reader.getString(), reader.getInteger(), reader.getInteger());
+        item.setId(id);
+        item.setVersion(version);
+        return item;
+    }
+
+    /**
+     * 검색 범위와 커서로 읽을 인덱스 구간
+     * <p>
+     * 시작은 범위의 최소값과 커서 바로 뒤 중 더 뒤쪽이다. 커서가 범위 밖에 있어도 구간을 한 번에 만들어서,
+     * 부분 집합 뷰에 범위 밖의 키를 넘기지 않는다.
+     *
+     * @return 읽을 구간이 없으면 null
+     */
+    private static NavigableSet<SortKey> rangeOf(
+            NavigableSet<SortKey> index,
+            ItemSearch search,
+            ItemSort sort,
+            ItemCursor after
+    ) {
+        Integer lower = sort == ItemSort.ID ? null : search.lowerBound(sort);
+        Integer upper = sort == ItemSort.ID ? null : search.upperBound(sort);
+
+        SortKey from = lower == null ? null : new SortKey(lower, Long.MIN_VALUE);
+        boolean fromInclusive = true;
+        if (after != null) {
+            SortKey cursorKey = new SortKey(after.value(), after.id());
+            if (from == null || cursorKey.compareTo(from) >= 0) {
+                from = cursorKey;
+                fromInclusive = false;
+            }
+        }
+        SortKey to = upper == null ? null : new SortKey(upper, Long.MAX_VALUE);
+
+        if (from == null) {
+            return to == null ? index : index.headSet(to, true);
+        }
+        if (to == null) {
+            return index.tailSet(from, fromInclusive);
+        }
+        return from.compareTo(to) > 0 ? null : index.subSet(from, fromInclusive, to, true);
+    }
+
+    /**
+     * 인덱스 키 순서의 상품, 읽는 사이 지워진 상품은 건너뛴다.
+     */
+    private Stream<Item> itemsOf(NavigableSet<SortKey> index) {
+        return index.stream()
+                .map(key -> store.get(key.id()))
+                .filter(Objects::nonNull);
+    }
+
+    private void addToIndexes(Item item) {
+        indexes.forEach((sort, index) -> index.add(SortKey.of(sort, item)));
+        nameIndex.add(item);
+    }
+
+    private void removeFromIndexes(Item item) {
+        indexes.forEach((sort, index) -> index.remove(SortKey.of(sort, item)));
+        nameIndex.remove(item);
+    }
+
+    /**
+     * 인덱스 키, 정렬 값이 같으면 ID 로 구분한다. null 값은 맨 앞에 온다.
+     */
+    private record SortKey(Comparable<?> value, long id) implements Comparable<SortKey> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static final Comparator<Comparable> VALUE_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+        static SortKey of(ItemSort sort, Item item) {
+            return new SortKey(sort.valueOf(item), item.getId());
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            int result = VALUE_ORDER.compare(value, other.value);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+
+    private record Snapshot(long version, List<Item> items) {
+        private static final Snapshot EMPTY = new Snapshot(0L, List.of());
     }
 }
@@ -0,0 +1,84 @@
+package hello.springcoremvc26.domain.item;
+
+/**
+ * 상품 검색 조건, null 인 조건은 적용하지 않는다.
+ * <p>
+ * 상품명은 토큰 단위 접두어 검색이다. "app pro" 는 "Apple MacBook Pro" 와 일치한다.
+ * 가격, 수량 범위는 양 끝을 포함하고, 최소값이 최대값보다 크면 결과가 없다.
+ *
+ * @param name        상품명 검색어
+ * @param priceMin    최소 가격
+ * @param priceMax    최대 가격
+ * @param quantityMin 최소 수량
+ * @param quantityMax 최대 수량
+ */
+public record ItemSearch(
+        String name,
+        Integer priceMin,
+        Integer priceMax,
+        Integer quantityMin,
+        Integer quantityMax
+) {
+    /**
+     * 결과 정렬이자 후보를 읽을 인덱스
+     * <p>
+     * 상품명이 있으면 역색인에서 ID 순서로, 없으면 범위 조건이 있는 인덱스를 그 값 순서로 읽는다.
+     * 커서는 이 정렬 기준으로 만들어진다.
+     */
+    public ItemSort sort() {
+        if (nameTokens().length > 0) {
+            return ItemSort.ID;
+        }
+        if (priceMin != null || priceMax != null) {
+            return ItemSort.PRICE;
+        }
+        if (quantityMin != null || quantityMax != null) {
+            return ItemSort.QUANTITY;
+        }
+        return ItemSort.ID;
+    }
+
+    String[] nameTokens() {
+        return ItemNameIndex.tokens(name);
+    }
+
+    /**
+     * 모든 조건을 만족하는지, 인덱스에서 꺼낸 후보를 현재 값으로 다시 확인할 때 쓴다.
+     */
+    boolean matches(Item item, String[] nameTokens) {
+        return inRange(item.getPrice(), priceMin, priceMax)
+                && inRange(item.getQuantity(), quantityMin, quantityMax)
+                && (nameTokens.length == 0 || ItemNameIndex.matches(item.getItemName(), nameTokens));
+    }
+
+    /**
+     * 최소값이 최대값보다 큰 범위가 있으면 어떤 상품도 일치하지 않는다.
+     */
+    public boolean hasEmptyRange() {
+        return isInverted(priceMin, priceMax) || isInverted(quantityMin, quantityMax);
+    }
+
+    /**
+     * 범위 인덱스를 읽을 때의 시작, 끝 값
+     */
+    Integer lowerBound(ItemSort sort) {
+        return sort == ItemSort.PRICE ? priceMin : quantityMin;
+    }
+
+    Integer upperBound(ItemSort sort) {
+        return sort == ItemSort.PRICE ? priceMax : quantityMax;
+    }
+
+    private static boolean isInverted(Integer min, Integer max) {
+        return min != null && max != null && min > max;
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null
+                && (min == null || value >= min)
+                && (max == null || value <= max);
+    }
+}
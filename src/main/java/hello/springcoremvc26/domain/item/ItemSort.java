@@ -0,0 +1,40 @@
+package hello.springcoremvc26.domain.item;
+
+import java.util.function.Function;
+
+/**
+ * 상품 목록 정렬 기준
+ * <p>
+ * 같은 값끼리는 ID 순서로 정렬되므로, (값, ID) 쌍이 항상 하나의 위치를 가리킨다.
+ */
+public enum ItemSort {
+    ID(Item::getId, Long::valueOf),
+    NAME(Item::getItemName, Function.identity()),
+    PRICE(Item::getPrice, Integer::valueOf),
+    QUANTITY(Item::getQuantity, Integer::valueOf);
+
+    private final Function<Item, ? extends Comparable<?>> extractor;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    ItemSort(
+            Function<Item, ? extends Comparable<?>> extractor,
+            Function<String, ? extends Comparable<?>> parser
+    ) {
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    /**
+     * 상품에서 정렬에 쓰이는 값
+     */
+    Comparable<?> valueOf(Item item) {
+        return extractor.apply(item);
+    }
+
+    /**
+     * 커서에 문자열로 담긴 정렬 값을 원래 타입으로 되돌린다.
+     */
+    Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+}
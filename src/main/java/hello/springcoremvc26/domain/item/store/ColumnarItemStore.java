@@ -0,0 +1,435 @@
+package hello.springcoremvc26.domain.item.store;
+
+import hello.springcoremvc26.domain.item.Item;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 힙 밖의 컬럼에 상품 값을 보관하는 저장소
+ * <p>
+ * 상품 ID 를 그대로 행 번호로 쓰고, 65536 행 단위 chunk 마다 version, 상품명 참조, 가격, 수량, 상태 컬럼을
+ * direct ByteBuffer 로 둔다. 행 하나는 28 바이트이고, 상품명은 NameArena 에 UTF-8 로 따로 저장한다.
+ * 힙에는 chunk 목록만 남으므로 상품이 많아도 GC 가 훑을 객체가 늘지 않는다.
+ * <p>
+ * 조회하면 ID 만 가진 ItemView 를 만들어 반환한다. 뷰는 읽을 때마다 컬럼의 현재 값을 읽고, setter 는 컬럼에 바로 쓴다.
+ * 같은 상품의 변경은 ID 로 나눈 락으로 막고, 읽기는 락 없이 컬럼을 acquire 로 읽는다.
+ * 상태 컬럼을 마지막에 release 로 쓰므로, 저장된 것으로 보이는 행은 모든 값이 채워져 있다.
+ * <p>
+ * ItemView 의 getter 는 컬럼을 하나씩 따로 읽는다. 락 없이 읽는 쪽은 같은 상품의 수정 도중에
+ * 이전 값과 새 값이 섞인 상태를 볼 수 있으므로, 여러 값을 맞춰서 읽으려면 computeIfPresent 안에서 읽는다.
+ * <p>
+ * clear() 는 모든 락을 잡아서 진행 중인 변경이 끝나기를 기다린 뒤, chunk 목록과 상품명 영역을 새것으로 한 번에 바꾼다.
+ * 락 없이 읽던 쪽은 이전 chunk 와 이전 상품명 영역을 같이 읽으므로, 비워진 영역을 읽는 일이 없다.
+ */
+public class ColumnarItemStore implements ItemStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 행 하나의 바이트 수, version(8) + 상품명 참조(8) + 가격(4) + 수량(4) + 상태(4)
+     */
+    static final int ROW_BYTES = Long.BYTES * 2 + Integer.BYTES * 3;
+
+    private static final int PRESENT = 1;
+    private static final int NAME_NULL = 1 << 1;
+    private static final int PRICE_NULL = 1 << 2;
+    private static final int QUANTITY_NULL = 1 << 3;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private volatile Columns columns = new Columns(new Chunk[0], new NameArena());
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ColumnarItemStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Item get(long id) {
+        Chunk chunk = chunkOf(id);
+        return chunk != null && chunk.isPresent(rowOf(id)) ? new ItemView(this, id) : null;
+    }
+
+    @Override
+    public boolean insert(Item item, Runnable onInsert) {
+        long id = item.getId();
+        synchronized (lockOf(id)) {
+            Chunk chunk = chunkFor(id);
+            int row = rowOf(id);
+            if (chunk.isPresent(row)) {
+                return false;
+            }
+            write(chunk, row, item);
+            size.incrementAndGet();
+            onInsert.run();
+            return true;
+        }
+    }
+
+    @Override
+    public Item computeIfPresent(long id, Consumer<Item> action) {
+        synchronized (lockOf(id)) {
+            Item item = get(id);
+            if (item != null) {
+                action.accept(item);
+            }
+            return item;
+        }
+    }
+
+    @Override
+    public void put(Item item) {
+        long id = item.getId();
+        synchronized (lockOf(id)) {
+            Chunk chunk = chunkFor(id);
+            int row = rowOf(id);
+            if (chunk.isPresent(row)) {
+                releaseName(chunk, row);
+            } else {
+                size.incrementAndGet();
+            }
+            write(chunk, row, item);
+        }
+    }
+
+    /**
+     * ID 순서로 순회한다.
+     */
+    @Override
+    public void forEach(Consumer<? super Item> action) {
+        Chunk[] current = columns.chunks();
+        for (int c = 0; c < current.length; c++) {
+            Chunk chunk = current[c];
+            if (chunk == null) {
+                continue;
+            }
+            long base = (long) c << CHUNK_BITS;
+            for (int row = 0; row < CHUNK_SIZE; row++) {
+                if (chunk.isPresent(row)) {
+                    action.accept(new ItemView(this, base + row));
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void clear() {
+        clear(0);
+    }
+
+    /**
+     * stripe 번호 순서로 락을 모두 잡은 뒤 비운다.
+     */
+    private void clear(int stripe) {
+        if (stripe == LOCK_STRIPES) {
+            synchronized (this) {
+                columns = new Columns(new Chunk[0], new NameArena());
+                size.set(0);
+            }
+            return;
+        }
+        synchronized (locks[stripe]) {
+            clear(stripe + 1);
+        }
+    }
+
+    /**
+     * 힙 밖에 할당된 바이트 수, 컬럼과 상품명 영역
+     */
+    public long getOffHeapBytes() {
+        Columns current = columns;
+        long allocated = 0;
+        for (Chunk chunk : current.chunks()) {
+            if (chunk != null) {
+                allocated += (long) CHUNK_SIZE * ROW_BYTES;
+            }
+        }
+        return allocated + current.names().getCapacity();
+    }
+
+    /**
+     * 상품명 영역에서 수정으로 더 이상 쓰이지 않는 바이트 수
+     */
+    public long getDeadNameBytes() {
+        return columns.names().getDeadBytes();
+    }
+
+    /**
+     * 컬럼 저장소의 상품 한 건을 보여주는 뷰
+     * <p>
+     * ID 만 가지고 있고, getter 와 setter 는 매번 컬럼을 읽고 쓴다.
+     * 상품이 지워진 뒤에는 ID 를 제외한 값이 null (version 은 0) 이다.
+     */
+    public static final class ItemView extends Item {
+        private final ColumnarItemStore store;
+        private final long id;
+
+        private ItemView(ColumnarItemStore store, long id) {
+            this.store = store;
+            this.id = id;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        /**
+         * 저장된 상품의 ID 는 바꿀 수 없다.
+         */
+        @Override
+        public void setId(Long id) {
+            throw new UnsupportedOperationException("저장된 상품의 ID 는 바꿀 수 없습니다. id = " + this.id);
+        }
+
+        @Override
+        public String getItemName() {
+            return store.readName(id);
+        }
+
+        @Override
+        public void setItemName(String itemName) {
+            store.writeName(id, itemName);
+        }
+
+        @Override
+        public Integer getPrice() {
+            return store.readInt(id, Column.PRICE);
+        }
+
+        @Override
+        public void setPrice(Integer price) {
+            store.writeInt(id, Column.PRICE, price);
+        }
+
+        @Override
+        public Integer getQuantity() {
+            return store.readInt(id, Column.QUANTITY);
+        }
+
+        @Override
+        public void setQuantity(Integer quantity) {
+            store.writeInt(id, Column.QUANTITY, quantity);
+        }
+
+        @Override
+        public long getVersion() {
+            Chunk chunk = store.chunkOf(id);
+            int row = rowOf(id);
+            return chunk != null && chunk.isPresent(row) ? (long) LONG.getAcquire(chunk.versions, row * Long.BYTES) : 0;
+        }
+
+        @Override
+        public void setVersion(long version) {
+            Chunk chunk = store.chunkOf(id);
+            if (chunk != null) {
+                LONG.setRelease(chunk.versions, rowOf(id) * Long.BYTES, version);
+            }
+        }
+    }
+
+    private enum Column {
+        PRICE(PRICE_NULL),
+        QUANTITY(QUANTITY_NULL);
+
+        private final int nullFlag;
+
+        Column(int nullFlag) {
+            this.nullFlag = nullFlag;
+        }
+    }
+
+    private String readName(long id) {
+        // chunk 와 상품명 영역은 같은 Columns 에서 읽는다.
+        Columns current = columns;
+        Chunk chunk = chunkOf(current, id);
+        int row = rowOf(id);
+        if (chunk == null) {
+            return null;
+        }
+        int flags = chunk.flags(row);
+        if ((flags & PRESENT) == 0 || (flags & NAME_NULL) != 0) {
+            return null;
+        }
+        return current.names().read((long) LONG.getAcquire(chunk.names, row * Long.BYTES));
+    }
+
+    private void writeName(long id, String name) {
+        Chunk chunk = chunkOf(id);
+        if (chunk == null) {
+            return;
+        }
+        int row = rowOf(id);
+        releaseName(chunk, row);
+        if (name != null) {
+            LONG.setRelease(chunk.names, row * Long.BYTES, columns.names().append(name));
+        }
+        chunk.setFlag(row, NAME_NULL, name == null);
+    }
+
+    private Integer readInt(long id, Column column) {
+        Chunk chunk = chunkOf(id);
+        int row = rowOf(id);
+        if (chunk == null) {
+            return null;
+        }
+        int flags = chunk.flags(row);
+        if ((flags & PRESENT) == 0 || (flags & column.nullFlag) != 0) {
+            return null;
+        }
+        return (int) INT.getAcquire(chunk.column(column), row * Integer.BYTES);
+    }
+
+    private void writeInt(long id, Column column, Integer value) {
+        Chunk chunk = chunkOf(id);
+        if (chunk == null) {
+            return;
+        }
+        int row = rowOf(id);
+        if (value != null) {
+            INT.setRelease(chunk.column(column), row * Integer.BYTES, (int) value);
+        }
+        chunk.setFlag(row, column.nullFlag, value == null);
+    }
+
+    /**
+     * 행 전체를 쓰고, 마지막에 상태 컬럼으로 공개한다. 락을 잡은 상태에서만 호출한다.
+     */
+    private void write(Chunk chunk, int row, Item item) {
+        int flags = PRESENT;
+        LONG.setRelease(chunk.versions, row * Long.BYTES, item.getVersion());
+        if (item.getItemName() != null) {
+            LONG.setRelease(chunk.names, row * Long.BYTES, columns.names().append(item.getItemName()));
+        } else {
+            flags |= NAME_NULL;
+        }
+        if (item.getPrice() != null) {
+            INT.setRelease(chunk.prices, row * Integer.BYTES, (int) item.getPrice());
+        } else {
+            flags |= PRICE_NULL;
+        }
+        if (item.getQuantity() != null) {
+            INT.setRelease(chunk.quantities, row * Integer.BYTES, (int) item.getQuantity());
+        } else {
+            flags |= QUANTITY_NULL;
+        }
+        INT.setRelease(chunk.flags, row * Integer.BYTES, flags);
+    }
+
+    private void releaseName(Chunk chunk, int row) {
+        int flags = chunk.flags(row);
+        if ((flags & PRESENT) != 0 && (flags & NAME_NULL) == 0) {
+            columns.names().release((long) LONG.getAcquire(chunk.names, row * Long.BYTES));
+        }
+    }
+
+    private Chunk chunkOf(long id) {
+        return chunkOf(columns, id);
+    }
+
+    private static Chunk chunkOf(Columns columns, long id) {
+        if (id <= 0) {
+            return null;
+        }
+        Chunk[] current = columns.chunks();
+        long index = id >>> CHUNK_BITS;
+        return index < current.length ? current[(int) index] : null;
+    }
+
+    /**
+     * 없으면 만든다.
+     */
+    private Chunk chunkFor(long id) {
+        Chunk chunk = chunkOf(id);
+        if (chunk != null) {
+            return chunk;
+        }
+        if (id <= 0) {
+            throw new IllegalArgumentException("id must be positive: " + id);
+        }
+
+        synchronized (this) {
+            int index = Math.toIntExact(id >>> CHUNK_BITS);
+            Columns current = columns;
+            Chunk[] grown = current.chunks();
+            if (index >= grown.length) {
+                grown = Arrays.copyOf(grown, Math.max(index + 1, grown.length * 2));
+            } else if (grown[index] != null) {
+                return grown[index];
+            } else {
+                grown = grown.clone();
+            }
+            grown[index] = new Chunk();
+            columns = new Columns(grown, current.names());
+            return grown[index];
+        }
+    }
+
+    private Object lockOf(long id) {
+        return locks[(int) (id & (LOCK_STRIPES - 1))];
+    }
+
+    private static int rowOf(long id) {
+        return (int) (id & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * clear() 가 한 번에 바꾸는 chunk 목록과 상품명 영역
+     *
+     * @param chunks chunk 번호(ID >>> CHUNK_BITS) -> chunk, 아직 없는 구간은 null
+     * @param names  chunks 의 상품명 참조가 가리키는 영역
+     */
+    private record Columns(
+            Chunk[] chunks,
+            NameArena names
+    ) {
+    }
+
+    private static final class Chunk {
+        private final ByteBuffer versions = allocate(Long.BYTES);
+        private final ByteBuffer names = allocate(Long.BYTES);
+        private final ByteBuffer prices = allocate(Integer.BYTES);
+        private final ByteBuffer quantities = allocate(Integer.BYTES);
+        private final ByteBuffer flags = allocate(Integer.BYTES);
+
+        boolean isPresent(int row) {
+            return (flags(row) & PRESENT) != 0;
+        }
+
+        int flags(int row) {
+            return (int) INT.getAcquire(flags, row * Integer.BYTES);
+        }
+
+        void setFlag(int row, int flag, boolean on) {
+            int index = row * Integer.BYTES;
+            int current;
+            do {
+                current = (int) INT.getAcquire(flags, index);
+            } while (!INT.compareAndSet(flags, index, current, on ? current | flag : current & ~flag));
+        }
+
+        ByteBuffer column(Column column) {
+            return column == Column.PRICE ? prices : quantities;
+        }
+
+        private static ByteBuffer allocate(int width) {
+            return ByteBuffer.allocateDirect(CHUNK_SIZE * width).order(ByteOrder.nativeOrder());
+        }
+    }
+}
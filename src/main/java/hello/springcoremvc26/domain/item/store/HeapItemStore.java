@@ -0,0 +1,58 @@
+package hello.springcoremvc26.domain.item.store;
+
+import hello.springcoremvc26.domain.item.Item;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 힙 메모리 상품 저장소, 저장한 Item 객체를 그대로 보관한다.
+ */
+public class HeapItemStore implements ItemStore {
+    private final Map<Long, Item> store = new ConcurrentHashMap<>();
+
+    @Override
+    public Item get(long id) {
+        return store.get(id);
+    }
+
+    @Override
+    public boolean insert(Item item, Runnable onInsert) {
+        boolean[] inserted = new boolean[1];
+        store.computeIfAbsent(item.getId(), id -> {
+            onInsert.run();
+            inserted[0] = true;
+            return item;
+        });
+        return inserted[0];
+    }
+
+    @Override
+    public Item computeIfPresent(long id, Consumer<Item> action) {
+        return store.computeIfPresent(id, (key, item) -> {
+            action.accept(item);
+            return item;
+        });
+    }
+
+    @Override
+    public void put(Item item) {
+        store.put(item.getId(), item);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Item> action) {
+        store.values().forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+}
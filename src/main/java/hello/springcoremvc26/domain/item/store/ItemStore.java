@@ -0,0 +1,55 @@
+package hello.springcoremvc26.domain.item.store;
+
+import hello.springcoremvc26.domain.item.Item;
+
+import java.util.function.Consumer;
+
+/**
+ * ItemRepository 의 상품 저장소
+ * <p>
+ * 정렬, 검색 인덱스와 저널은 ItemRepository 가 관리하고, 저장소는 ID -> 상품만 담당한다.
+ * 같은 상품에 대한 insert, computeIfPresent 는 서로 섞이지 않아야 한다.
+ * 구현체는 여러 스레드에서 동시에 호출된다.
+ */
+public interface ItemStore {
+    /**
+     * 상품 조회
+     * <p>
+     * 반환된 상품은 저장소의 현재 값을 보여준다. 수정하려면 computeIfPresent 를 쓴다.
+     *
+     * @return 없으면 null
+     */
+    Item get(long id);
+
+    /**
+     * 새 상품 저장, 같은 ID 의 상품이 있으면 저장하지 않는다.
+     *
+     * @param item     ID 가 채워진 상품
+     * @param onInsert 저장한 직후, 같은 상품의 다른 변경과 섞이지 않게 호출된다. 인덱스 등록 용도
+     * @return 저장했으면 true
+     */
+    boolean insert(Item item, Runnable onInsert);
+
+    /**
+     * 같은 상품의 다른 변경과 섞이지 않게 action 을 실행한다.
+     * action 은 전달받은 상품의 setter 로 값을 바꾸며, 바꾼 값은 바로 저장소에 반영된다.
+     *
+     * @return action 에 전달된 상품, 없으면 null
+     */
+    Item computeIfPresent(long id, Consumer<Item> action);
+
+    /**
+     * 저장, 같은 ID 의 상품이 있으면 덮어쓴다. 저널 복구 용도
+     */
+    void put(Item item);
+
+    /**
+     * 저장된 모든 상품 순회, 순서는 구현체마다 다르다.
+     * 도중에 추가, 수정된 상품은 포함될 수도 있고 아닐 수도 있다.
+     */
+    void forEach(Consumer<? super Item> action);
+
+    int size();
+
+    void clear();
+}
@@ -0,0 +1,20 @@
+package hello.springcoremvc26.domain.item.store;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * ItemRepository 저장소 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.item.store")
+public class ItemStoreProperties {
+    private Type type = Type.HEAP;
+
+    public enum Type {
+        HEAP,    // Item 객체를 그대로 보관
+        COLUMNAR // 힙 밖의 컬럼에 값만 보관, 상품이 아주 많을 때
+    }
+}
@@ -0,0 +1,90 @@
+package hello.springcoremvc26.domain.item.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 힙 밖에 UTF-8 로 이어 붙여 저장하는 문자열 영역
+ * <p>
+ * 문자열 하나는 (시작 위치 << 21 | 바이트 길이) 인 long 참조로 가리킨다.
+ * 1MB 세그먼트 단위로 늘어나며, 문자열은 세그먼트 경계를 넘지 않는다.
+ * 추가만 하므로 바뀐 문자열의 이전 바이트는 영역을 버릴 때까지 남는다. 남은 양은 getDeadBytes() 로 확인한다.
+ * 비울 때는 새 영역을 만든다. 이미 읽고 있는 쪽이 있을 수 있으므로 세그먼트를 지우지 않는다.
+ */
+final class NameArena {
+    private static final int SEGMENT_BITS = 20;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int LENGTH_BITS = SEGMENT_BITS + 1;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+
+    /**
+     * 읽는 쪽은 참조를 먼저 읽고 세그먼트를 읽으므로, 새 세그먼트는 참조보다 먼저 보인다.
+     */
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private long position;
+
+    private final LongAdder deadBytes = new LongAdder();
+
+    /**
+     * @return 문자열 참조
+     * @throws IllegalArgumentException UTF-8 로 1MB 를 넘는 문자열
+     */
+    synchronized long append(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("문자열이 너무 깁니다. bytes = " + bytes.length);
+        }
+
+        int offset = (int) (position & (SEGMENT_SIZE - 1));
+        if (offset + bytes.length > SEGMENT_SIZE) {
+            // 세그먼트 남은 자리는 버리고 다음 세그먼트에서 시작한다.
+            deadBytes.add(SEGMENT_SIZE - offset);
+            position += SEGMENT_SIZE - offset;
+            offset = 0;
+        }
+
+        int segment = (int) (position >>> SEGMENT_BITS);
+        ByteBuffer[] current = segments;
+        if (segment == current.length) {
+            current = Arrays.copyOf(current, segment + 1);
+            current[segment] = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+            segments = current;
+        }
+        current[segment].put(offset, bytes);
+
+        long ref = position << LENGTH_BITS | bytes.length;
+        position += bytes.length;
+        return ref;
+    }
+
+    String read(long ref) {
+        long start = ref >>> LENGTH_BITS;
+        byte[] bytes = new byte[(int) (ref & LENGTH_MASK)];
+        segments[(int) (start >>> SEGMENT_BITS)].get((int) (start & (SEGMENT_SIZE - 1)), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 더 이상 쓰지 않는 문자열로 표시
+     */
+    void release(long ref) {
+        deadBytes.add(ref & LENGTH_MASK);
+    }
+
+    /**
+     * 할당된 세그먼트 전체 크기
+     */
+    long getCapacity() {
+        return (long) segments.length * SEGMENT_SIZE;
+    }
+
+    synchronized long getUsedBytes() {
+        return position;
+    }
+
+    long getDeadBytes() {
+        return deadBytes.sum();
+    }
+}
@@ -0,0 +1,596 @@
+package hello.springcoremvc26.domain.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * 추가 전용 로그(write-ahead log)와 스냅샷
+ * <p>
+ * 저장소는 변경을 메모리에 반영한 뒤 레코드를 append() 하고, 돌려받은 Commit 을 await() 해서 디스크 반영을 기다린다.
+ * 기록은 전용 스레드 하나가 맡는다. 대기 중인 레코드를 한 번에 모아 FileChannel 에 쓰고 force() 는 묶음마다 한 번만 하므로(group commit),
+ * 동시에 쓰는 요청이 많을수록 fsync 비용이 나눠진다.
+ * <p>
+ * 로그는 세그먼트 파일로 나뉜다. 스냅샷을 만들 때 새 세그먼트로 넘어간 뒤, 저장소의 현재 상태를 레코드로 다시 써서
+ * "이전 세그먼트까지 반영된 압축 로그" 로 저장하고 이전 파일들은 지운다.
+ * 복구는 가장 최근 스냅샷을 읽고 그 뒤 세그먼트만 다시 적용한다.
+ * <p>
+ * 기록에 실패하면 그 묶음은 모두 실패로 알리고, 세그먼트 끝에 남았을 수 있는 쓰다 만 레코드를 잘라낸다.
+ * 복구는 쓰다 만 레코드에서 그 세그먼트 읽기를 멈추므로, 그대로 두면 이후에 성공한 레코드까지 재시작 때 사라진다.
+ * 잘라내지 못하면 새 세그먼트로 넘어가고, 그것도 안 되면 이후 append() 를 거절한다.
+ * <p>
+ * 스냅샷은 세그먼트를 넘긴 뒤에 만들어지므로 뒤 세그먼트의 변경이 일부 들어갈 수 있다.
+ * 따라서 레코드는 같은 레코드를 다시 적용해도 결과가 같도록(버전 비교 등) 저장소가 정의해야 한다.
+ * <p>
+ * 파일 구조
+ * <pre>
+ * {name}-{segment}.log      : record*
+ * {name}-{segment}.snapshot : record*, segment 이하의 로그가 모두 반영된 상태
+ * record                    : length(int) | crc32c(int) | payload
+ * </pre>
+ */
+@Slf4j
+public class Journal implements Closeable {
+    private static final int MAX_BATCH = 4096;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private final Path directory;
+    private final String name;
+    private final Pattern fileName;
+
+    /**
+     * 이 수 만큼 레코드가 쌓이면 백그라운드에서 스냅샷을 만든다. 0 이하면 자동으로 만들지 않는다.
+     */
+    private final long snapshotEvery;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong sinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private final LongAdder appendedCount = new LongAdder();
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder snapshotCount = new LongAdder();
+
+    private final SegmentOpener segmentOpener;
+
+    private volatile boolean open;
+
+    /**
+     * 쓰다 만 레코드를 정리하지 못한 기록 오류, 있으면 더 이상 기록하지 않는다.
+     */
+    private volatile IOException failure;
+    private Consumer<Consumer<byte[]>> snapshotSource;
+    private Thread writer;
+    private ExecutorService snapshotExecutor;
+
+    /**
+     * 기록 스레드만 접근한다.
+     */
+    private FileChannel channel;
+    private long segment;
+
+    /**
+     * 현재 세그먼트에서 force() 까지 끝난 위치
+     */
+    private long committedSize;
+
+    public Journal(
+            Path directory,
+            String name,
+            long snapshotEvery
+    ) {
+        this(directory, name, snapshotEvery,
+                path -> FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * @param segmentOpener 세그먼트 파일을 여는 방법, 테스트에서 기록 오류를 흉내 내는 용도
+     */
+    Journal(
+            Path directory,
+            String name,
+            long snapshotEvery,
+            SegmentOpener segmentOpener
+    ) {
+        this.segmentOpener = segmentOpener;
+        this.directory = directory;
+        this.name = name;
+        this.snapshotEvery = snapshotEvery;
+        this.fileName = Pattern.compile(Pattern.quote(name) + "-(\\d+)(\\.log|\\.snapshot)");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 남아있는 스냅샷과 로그를 순서대로 replay 에 넘긴 뒤, 새 세그먼트를 열고 기록을 시작한다.
+     *
+     * @param replay         복구할 레코드를 받을 콜백
+     * @param snapshotSource 스냅샷을 만들 때 저장소의 현재 상태를 레코드로 넘겨줄 콜백
+     * @return 복구한 레코드 수
+     */
+    public long open(
+            Consumer<ByteBuffer> replay,
+            Consumer<Consumer<byte[]>> snapshotSource
+    ) {
+        if (open) {
+            throw new IllegalStateException("journal already open: " + name);
+        }
+
+        long start = System.nanoTime();
+        long records = recover(replay);
+        log.info("Journal [{}] recovered {} records in {}ms", name, records, (System.nanoTime() - start) / 1_000_000);
+
+        this.snapshotSource = snapshotSource;
+        try {
+            openSegment(segment + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-" + name + "-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = new Thread(this::writeLoop, "journal-" + name);
+        this.writer.setDaemon(true);
+        this.open = true;
+        this.writer.start();
+        return records;
+    }
+
+    /**
+     * 레코드 추가, 기록을 기다리지 않고 바로 반환한다.
+     * 같은 스레드에서 나중에 추가한 레코드는 항상 로그에서도 뒤에 온다.
+     *
+     * @param record 레코드
+     * @return 디스크 반영을 기다릴 수 있는 Commit
+     */
+    public Commit append(byte[] record) {
+        if (!open) {
+            throw new IllegalStateException("journal is not open: " + name);
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("journal failed: " + name, failure);
+        }
+        if (record.length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("record too large: " + record.length);
+        }
+
+        Pending pending = new Pending(record);
+        queue.add(pending);
+        appendedCount.increment();
+
+        if (snapshotEvery > 0 && sinceSnapshot.incrementAndGet() >= snapshotEvery) {
+            scheduleSnapshot();
+        }
+        return pending;
+    }
+
+    /**
+     * 지금까지의 로그를 스냅샷 하나로 압축한다.
+     * 스냅샷을 만드는 동안에도 append() 는 막히지 않는다.
+     */
+    public void snapshot() {
+        if (!open) {
+            throw new IllegalStateException("journal is not open: " + name);
+        }
+
+        snapshotLock.lock();
+        try {
+            sinceSnapshot.set(0);
+
+            // 새 세그먼트로 넘어간다. 이후 레코드는 새 세그먼트에 쓰인다.
+            Pending rotate = new Pending(null);
+            queue.add(rotate);
+            rotate.await();
+            long covered = rotate.rotatedSegment;
+
+            Path temp = directory.resolve(fileName(covered, SNAPSHOT_SUFFIX) + ".tmp");
+            long records = writeSnapshot(temp);
+            Files.move(temp, directory.resolve(fileName(covered, SNAPSHOT_SUFFIX)),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            deleteUpTo(covered);
+
+            snapshotCount.increment();
+            log.info("Journal [{}] snapshot of {} records covers segment {}", name, records, covered);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * 대기 중인 레코드를 모두 기록한 뒤 닫는다.
+     */
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+
+        // 진행 중인 스냅샷은 세그먼트 전환에 기록 스레드가 필요하므로 먼저 끝낸다.
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            open = false;
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getAppendedCount() {
+        return appendedCount.sum();
+    }
+
+    /**
+     * force() 횟수, appendedCount 보다 작을수록 묶음 기록이 잘 되고 있는 것
+     */
+    public long getCommitCount() {
+        return commitCount.sum();
+    }
+
+    public long getSnapshotCount() {
+        return snapshotCount.sum();
+    }
+
+    /**
+     * 디스크 반영 대기
+     */
+    public interface Commit {
+        /**
+         * 기록할 필요가 없는 경우
+         */
+        Commit DONE = () -> {
+        };
+
+        /**
+         * 레코드가 디스크에 반영될 때까지 기다린다.
+         *
+         * @throws UncheckedIOException 기록에 실패한 경우
+         */
+        void await();
+    }
+
+    /**
+     * 세그먼트 파일 열기
+     */
+    @FunctionalInterface
+    interface SegmentOpener {
+        FileChannel open(Path path) throws IOException;
+    }
+
+    /**
+     * 기록 스레드, 큐가 빌 때까지 모아서 한 번에 쓴다.
+     */
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (open || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                if (failure != null) {
+                    throw failure;
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // 종료는 open 플래그로만 한다. 대기 중인 레코드를 버리지 않는다.
+                log.warn("Journal [{}] writer interrupted", name);
+            } catch (IOException | RuntimeException e) {
+                batch.forEach(pending -> pending.completeExceptionally(e));
+                if (failure == null) {
+                    log.error("Journal [{}] write error", name, e);
+                    discardPartialWrite(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 세그먼트 전환 표시를 만나면 그 앞까지 기록하고 새 세그먼트를 연다.
+     */
+    private void writeBatch(List<Pending> batch) throws IOException {
+        int from = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (pending.isRotate()) {
+                flush(batch, from, i);
+                pending.rotatedSegment = segment;
+                channel.close();
+                openSegment(segment + 1);
+                pending.complete(null);
+                from = i + 1;
+            }
+        }
+        flush(batch, from, batch.size());
+    }
+
+    private void flush(List<Pending> batch, int from, int to) throws IOException {
+        if (from >= to) {
+            return;
+        }
+
+        ByteBuffer[] buffers = new ByteBuffer[to - from];
+        long remaining = 0;
+        for (int i = from; i < to; i++) {
+            buffers[i - from] = frame(batch.get(i).record);
+            remaining += buffers[i - from].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        channel.force(false);
+        committedSize = channel.position();
+        commitCount.increment();
+
+        for (int i = from; i < to; i++) {
+            batch.get(i).complete(null);
+        }
+    }
+
+    /**
+     * 기록 오류 뒤에 세그먼트를 마지막으로 force() 한 위치까지 잘라낸다.
+     * 잘라내지 못하면 새 세그먼트로 넘어가고, 그것도 안 되면 저널을 실패 상태로 둔다.
+     */
+    private void discardPartialWrite(Exception cause) {
+        try {
+            channel.truncate(committedSize);
+            channel.position(committedSize);
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Journal [{}] could not truncate segment {} to {}, rotating", name, segment, committedSize, e);
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Journal [{}] could not close segment {}", name, segment, e);
+        }
+        try {
+            openSegment(segment + 1);
+        } catch (IOException e) {
+            log.error("Journal [{}] could not open a new segment, rejecting further appends", name, e);
+            e.addSuppressed(cause);
+            failure = e;
+        }
+    }
+
+    private void scheduleSnapshot() {
+        if (!snapshotScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            snapshotExecutor.execute(() -> {
+                try {
+                    snapshot();
+                } catch (RuntimeException e) {
+                    log.error("Journal [{}] snapshot error", name, e);
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 닫는 중
+            snapshotScheduled.set(false);
+        }
+    }
+
+    private long writeSnapshot(Path path) throws IOException {
+        try (FileChannel out = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream stream = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(out), IO_BUFFER_SIZE));
+            long[] records = {0};
+            snapshotSource.accept(record -> {
+                try {
+                    writeFrame(stream, record);
+                    records[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            stream.flush();
+            out.force(true);
+            return records[0];
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 가장 최근 스냅샷과 그 이후 세그먼트를 읽는다.
+     * 마지막에 쓰다 만 레코드가 있으면 그 앞까지만 적용한다.
+     */
+    private long recover(Consumer<ByteBuffer> replay) {
+        TreeMap<Long, Path> logs = new TreeMap<>();
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (var files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = fileName.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    long number = Long.parseLong(matcher.group(1));
+                    (LOG_SUFFIX.equals(matcher.group(2)) ? logs : snapshots).put(number, file);
+                }
+            });
+
+            long records = 0;
+            long covered = 0;
+            if (!snapshots.isEmpty()) {
+                covered = snapshots.lastKey();
+                records += read(snapshots.lastEntry().getValue(), replay);
+            }
+            for (Path file : logs.tailMap(covered, false).values()) {
+                records += read(file, replay);
+            }
+
+            segment = Math.max(covered, logs.isEmpty() ? 0 : logs.lastKey());
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long read(Path path, Consumer<ByteBuffer> replay) throws IOException {
+        long records = 0;
+        try (InputStream in = Files.newInputStream(path);
+             DataInputStream stream = new DataInputStream(new BufferedInputStream(in, IO_BUFFER_SIZE))) {
+            CRC32C crc = new CRC32C();
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = stream.readInt();
+                    checksum = stream.readInt();
+                    if (length < 0 || length > MAX_RECORD_SIZE) {
+                        log.warn("Journal [{}] invalid record length {} in {}, ignoring the rest", name, length, path);
+                        break;
+                    }
+                    payload = stream.readNBytes(length);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload);
+                if (payload.length != length || (int) crc.getValue() != checksum) {
+                    log.warn("Journal [{}] torn record in {}, ignoring the rest", name, path);
+                    break;
+                }
+
+                replay.accept(ByteBuffer.wrap(payload));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        channel = segmentOpener.open(directory.resolve(fileName(number, LOG_SUFFIX)));
+        committedSize = 0;
+    }
+
+    /**
+     * 스냅샷에 반영된 세그먼트와 이전 스냅샷 삭제
+     */
+    private void deleteUpTo(long covered) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = fileName.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                long number = Long.parseLong(matcher.group(1));
+                boolean snapshot = SNAPSHOT_SUFFIX.equals(matcher.group(2));
+                if (snapshot ? number < covered : number <= covered) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private String fileName(long number, String suffix) {
+        return String.format("%s-%019d%s", name, number, suffix);
+    }
+
+    private static ByteBuffer frame(byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return ByteBuffer.allocate(8 + record.length)
+                .putInt(record.length)
+                .putInt((int) crc.getValue())
+                .put(record)
+                .flip();
+    }
+
+    private static void writeFrame(DataOutputStream stream, byte[] record) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        stream.writeInt(record.length);
+        stream.writeInt((int) crc.getValue());
+        stream.write(record);
+    }
+
+    /**
+     * 기록 대기 중인 레코드, record 가 null 이면 세그먼트 전환 표시
+     */
+    private static class Pending extends CompletableFuture<Void> implements Commit {
+        private final byte[] record;
+        private long rotatedSegment;
+
+        Pending(byte[] record) {
+            this.record = record;
+        }
+
+        boolean isRotate() {
+            return record == null;
+        }
+
+        @Override
+        public void await() {
+            try {
+                join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package hello.springcoremvc26.domain.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 저장소 저널 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.journal")
+public class JournalProperties {
+    /**
+     * false 면 저장소는 메모리에만 보관하고, 재시작하면 사라진다.
+     */
+    private boolean enabled = false;
+
+    /**
+     * 로그와 스냅샷 파일을 둘 디렉터리
+     */
+    private String directory = "data/journal";
+
+    /**
+     * 이 수 만큼 레코드가 쌓일 때마다 스냅샷을 만든다. 0 이하면 만들지 않는다.
+     */
+    private long snapshotEvery = 100_000;
+}
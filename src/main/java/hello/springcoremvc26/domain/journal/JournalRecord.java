@@ -0,0 +1,120 @@
+package hello.springcoremvc26.domain.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 저널 레코드 인코딩/디코딩
+ * <p>
+ * 첫 바이트는 레코드 종류이고, 나머지 필드 구성은 저장소가 정한다.
+ * 문자열과 Integer 는 null 을 구분해서 저장한다.
+ */
+public final class JournalRecord {
+    private JournalRecord() {
+    }
+
+    public static Writer writer(byte type) {
+        return new Writer(type);
+    }
+
+    public static Reader reader(ByteBuffer buffer) {
+        return new Reader(buffer);
+    }
+
+    public static class Writer {
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        private Writer(byte type) {
+            ensure(1);
+            bytes[size++] = type;
+        }
+
+        public Writer putLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+            return this;
+        }
+
+        public Writer putInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+            return this;
+        }
+
+        /**
+         * null 이면 Integer.MIN_VALUE 와 구분하기 위해 앞에 표시 바이트를 둔다.
+         */
+        public Writer putInteger(Integer value) {
+            ensure(1);
+            bytes[size++] = (byte) (value == null ? 0 : 1);
+            return value == null ? this : putInt(value);
+        }
+
+        /**
+         * 길이(int, null 이면 -1) + UTF-8
+         */
+        public Writer putString(String value) {
+            if (value == null) {
+                return putInt(-1);
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putInt(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+            return this;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+
+    public static class Reader {
+        private final ByteBuffer buffer;
+        private final byte type;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.type = buffer.get();
+        }
+
+        public byte type() {
+            return type;
+        }
+
+        public long getLong() {
+            return buffer.getLong();
+        }
+
+        public int getInt() {
+            return buffer.getInt();
+        }
+
+        public Integer getInteger() {
+            return buffer.get() == 0 ? null : buffer.getInt();
+        }
+
+        public String getString() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+    }
+}
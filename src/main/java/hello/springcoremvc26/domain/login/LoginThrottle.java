@@ -0,0 +1,239 @@
+package hello.springcoremvc26.domain.login;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로그인 시도 제한
+ * <p>
+ * 로그인 ID 별, 클라이언트 주소 별 토큰 버킷을 두고 둘 다 토큰이 있어야 시도를 허용한다.
+ * 회원 조회와 비밀번호 비교 전에 호출해서, 대량의 로그인 시도가 실제 로그인과 같은 비용을 쓰지 않게 한다.
+ * <p>
+ * 버킷 수는 maxBuckets 로 제한한다. 가득 차면 먼저 만들어진 버킷부터 보면서, 다시 가득 찼거나 오래 쓰이지 않은 버킷을
+ * 하나 내보내고 새 키에 자리를 준다(second chance). 새 키가 몰려도 요청마다 전체를 훑지 않고, 새 키끼리 버킷을 나눠 쓰지 않는다.
+ * 오래 쓰이지 않은 버킷 전체 정리는 idleEviction 마다 한 번만 한다.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+    private final LoginThrottleProperties properties;
+    private final Clock clock;
+
+    /**
+     * 버킷 시각의 기준, 버킷에는 이 시각부터 지난 ms 만 저장한다.
+     */
+    private final long baseMillis;
+
+    private final Limiter loginIdLimiter;
+    private final Limiter clientLimiter;
+
+    private final LongAdder allowedCount = new LongAdder();
+    private final LongAdder loginIdRejectedCount = new LongAdder();
+    private final LongAdder clientRejectedCount = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(LoginThrottleProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    LoginThrottle(
+            LoginThrottleProperties properties,
+            Clock clock
+    ) {
+        this.properties = properties;
+        this.clock = clock;
+        this.baseMillis = clock.millis();
+        this.loginIdLimiter = new Limiter("loginId", properties.getLoginId());
+        this.clientLimiter = new Limiter("client", properties.getClient());
+    }
+
+    /**
+     * 로그인 시도 허용 여부
+     * <p>
+     * 클라이언트 버킷을 먼저 확인하므로, 한 주소에서 여러 ID 를 시도하는 경우 ID 버킷은 소모되지 않는다.
+     *
+     * @param loginId       로그인 ID
+     * @param clientAddress 클라이언트 주소
+     * @return 허용되면 true
+     */
+    public boolean tryAcquire(
+            String loginId,
+            String clientAddress
+    ) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        long now = now();
+        if (!clientLimiter.tryAcquire(clientAddress, now)) {
+            clientRejectedCount.increment();
+            return false;
+        }
+        if (!loginIdLimiter.tryAcquire(loginId, now)) {
+            loginIdRejectedCount.increment();
+            return false;
+        }
+
+        allowedCount.increment();
+        return true;
+    }
+
+    public long getAllowedCount() {
+        return allowedCount.sum();
+    }
+
+    public long getLoginIdRejectedCount() {
+        return loginIdRejectedCount.sum();
+    }
+
+    public long getClientRejectedCount() {
+        return clientRejectedCount.sum();
+    }
+
+    public int getLoginIdBucketCount() {
+        return loginIdLimiter.buckets.size();
+    }
+
+    public int getClientBucketCount() {
+        return clientLimiter.buckets.size();
+    }
+
+    /**
+     * maxBuckets 를 넘어서 새 키에 자리를 주려고 내보낸 버킷 수
+     */
+    public long getEvictedCount() {
+        return loginIdLimiter.evictedCount.sum() + clientLimiter.evictedCount.sum();
+    }
+
+    private long now() {
+        return clock.millis() - baseMillis;
+    }
+
+    /**
+     * 한 종류의 키에 대한 버킷 모음
+     */
+    private class Limiter {
+        /**
+         * 버킷 하나를 내보낼 때 살펴보는 최대 후보 수
+         */
+        private static final int EVICTION_SCAN = 16;
+
+        private final String name;
+        private final int capacity;
+        private final long refillMillis;
+
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        /**
+         * 버킷을 만든 순서의 키, 내보낼 후보를 앞에서부터 꺼낸다.
+         * 이미 정리된 키가 남아있을 수 있다.
+         */
+        private final Queue<String> order = new ConcurrentLinkedQueue<>();
+        private final LongAdder evictedCount = new LongAdder();
+
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        private volatile long lastSweep;
+
+        Limiter(String name, LoginThrottleProperties.Bucket bucket) {
+            if (bucket.getCapacity() <= 0 || bucket.getCapacity() > TokenBucket.MAX_CAPACITY) {
+                throw new IllegalArgumentException(name + " capacity must be 1 ~ " + TokenBucket.MAX_CAPACITY);
+            }
+
+            this.name = name;
+            this.capacity = bucket.getCapacity();
+            this.refillMillis = Math.max(1, bucket.getRefill().toMillis());
+        }
+
+        boolean tryAcquire(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = newBucket(key, now);
+            }
+            return bucket.tryAcquire(capacity, refillMillis, now);
+        }
+
+        private TokenBucket newBucket(String key, long now) {
+            if (now - lastSweep >= properties.getIdleEviction().toMillis()) {
+                sweep(now);
+            }
+
+            boolean[] created = new boolean[1];
+            TokenBucket bucket = buckets.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return new TokenBucket(capacity, now);
+            });
+            if (created[0]) {
+                order.add(key);
+                while (buckets.size() > properties.getMaxBuckets() && evictOne(key, now)) {
+                    // 넘친 만큼 내보낸다.
+                }
+            }
+            return bucket;
+        }
+
+        /**
+         * 먼저 만들어진 버킷부터 EVICTION_SCAN 개까지 보고, 다시 가득 찼거나 오래 쓰이지 않은 버킷을 내보낸다.
+         * 아직 토큰을 쓰고 있는 버킷은 뒤로 보내서 한 번 더 기회를 준다.
+         * 후보가 모두 쓰이고 있으면 마지막 후보를 내보낸다. 내보낸 키는 다음 시도에서 가득 찬 버킷으로 다시 시작하지만,
+         * 그러려면 그 사이 maxBuckets 만큼의 새 키가 먼저 들어와야 한다.
+         *
+         * @param key 방금 만든 키, 내보내지 않는다.
+         * @return 내보냈으면 true
+         */
+        private boolean evictOne(String key, long now) {
+            long idleMillis = properties.getIdleEviction().toMillis();
+            for (int scanned = 0; scanned < EVICTION_SCAN * 2; scanned++) {
+                String candidate = order.poll();
+                if (candidate == null) {
+                    return false;
+                }
+                TokenBucket bucket = buckets.get(candidate);
+                if (bucket == null) {
+                    // sweep 으로 이미 정리된 키
+                    continue;
+                }
+
+                boolean reusable = now - bucket.lastRefillTime() >= idleMillis || bucket.isFull(capacity, refillMillis, now);
+                if (candidate.equals(key) || (!reusable && scanned < EVICTION_SCAN - 1)) {
+                    order.add(candidate);
+                    continue;
+                }
+                if (buckets.remove(candidate, bucket)) {
+                    evictedCount.increment();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 오래 쓰이지 않았거나 가득 찬 버킷 제거, idleEviction 마다 한 번, 한 스레드만 정리한다.
+         */
+        private void sweep(long now) {
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                long idleMillis = properties.getIdleEviction().toMillis();
+                int before = buckets.size();
+                buckets.values().removeIf(bucket ->
+                        now - bucket.lastRefillTime() >= idleMillis || bucket.isFull(capacity, refillMillis, now));
+                order.removeIf(key -> !buckets.containsKey(key));
+                lastSweep = now;
+                log.debug("LoginThrottle {} buckets swept {} -> {}", name, before, buckets.size());
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
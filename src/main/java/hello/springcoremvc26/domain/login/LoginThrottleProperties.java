@@ -0,0 +1,62 @@
+package hello.springcoremvc26.domain.login;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 로그인 시도 제한 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.login.throttle")
+public class LoginThrottleProperties {
+    /**
+     * false 면 제한하지 않는다.
+     */
+    private boolean enabled = true;
+
+    /**
+     * 같은 로그인 ID 에 대한 시도 제한
+     */
+    private Bucket loginId = new Bucket(5, Duration.ofSeconds(30));
+
+    /**
+     * 같은 클라이언트 주소에서의 시도 제한
+     */
+    private Bucket client = new Bucket(20, Duration.ofSeconds(3));
+
+    /**
+     * 종류별 최대 버킷 수, 넘으면 먼저 만들어진 버킷 중 쓰이지 않는 것부터 내보낸다.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * 이 시간 동안 시도가 없는 버킷은 제거한다.
+     */
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        /**
+         * 연속으로 허용하는 최대 시도 수
+         */
+        private int capacity;
+
+        /**
+         * 시도 한 번이 다시 허용되기까지의 시간
+         */
+        private Duration refill;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, Duration refill) {
+            this.capacity = capacity;
+            this.refill = refill;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package hello.springcoremvc26.domain.login;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 락 없는 토큰 버킷
+ * <p>
+ * 남은 토큰 수와 마지막 충전 시각을 long 하나에 묶어서 CAS 로 함께 바꾼다.
+ * <pre>
+ * state : 마지막 충전 시각(기준 시각부터 ms, 상위 48 bit) | 토큰 수(하위 16 bit)
+ * </pre>
+ * 충전은 별도 스레드 없이, 토큰을 꺼낼 때 지난 시간만큼 한꺼번에 계산한다.
+ */
+class TokenBucket {
+    static final int MAX_CAPACITY = 0xFFFF;
+    private static final int TOKEN_BITS = 16;
+    private static final long TOKEN_MASK = MAX_CAPACITY;
+
+    private final AtomicLong state;
+
+    /**
+     * 가득 찬 상태로 시작
+     *
+     * @param now 기준 시각부터 지난 ms
+     */
+    TokenBucket(int capacity, long now) {
+        this.state = new AtomicLong(pack(now, capacity));
+    }
+
+    /**
+     * 토큰 하나를 꺼낸다.
+     *
+     * @param capacity     최대 토큰 수
+     * @param refillMillis 토큰 하나가 다시 채워지는 시간
+     * @param now          기준 시각부터 지난 ms
+     * @return 토큰이 있었으면 true
+     */
+    boolean tryAcquire(int capacity, long refillMillis, long now) {
+        while (true) {
+            long current = state.get();
+            long refilled = refill(current, capacity, refillMillis, now);
+            int tokens = tokensOf(refilled);
+            if (tokens == 0) {
+                // 충전 시각만 바뀐 경우라도 저장하지 않는다. 다음 호출이 같은 계산을 다시 한다.
+                return false;
+            }
+
+            if (state.compareAndSet(current, pack(timeOf(refilled), tokens - 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 지금 시각 기준으로 가득 찼는지, 가득 찬 버킷은 없는 것과 같으므로 제거해도 된다.
+     */
+    boolean isFull(int capacity, long refillMillis, long now) {
+        return tokensOf(refill(state.get(), capacity, refillMillis, now)) >= capacity;
+    }
+
+    /**
+     * 마지막으로 토큰을 꺼낸(또는 충전된) 시각
+     */
+    long lastRefillTime() {
+        return timeOf(state.get());
+    }
+
+    private static long refill(long state, int capacity, long refillMillis, long now) {
+        long time = timeOf(state);
+        int tokens = tokensOf(state);
+        long elapsed = now - time;
+        if (elapsed < refillMillis) {
+            return state;
+        }
+
+        long added = elapsed / refillMillis;
+        if (tokens + added >= capacity) {
+            return pack(now, capacity);
+        }
+        // 채우고 남은 시간은 다음 충전에 쓰도록 충전 시각을 토큰 단위로만 옮긴다.
+        return pack(time + added * refillMillis, (int) (tokens + added));
+    }
+
+    private static long pack(long time, int tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+
+    private static long timeOf(long state) {
+        return state >>> TOKEN_BITS;
+    }
+
+    private static int tokensOf(long state) {
+        return (int) (state & TOKEN_MASK);
+    }
+}
@@ -0,0 +1,120 @@
+package hello.springcoremvc26.domain.member;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 회원 ID -> Member 캐시
+ * <p>
+ * 세션에는 회원 ID 만 들어있으므로, 로그인 회원이 필요한 요청마다 이 캐시로 Member 를 찾는다.
+ * 항목에는 넣을 때의 MemberRepository.generation 을 같이 기록하고, 값이 달라졌으면 저장소에서 다시 읽는다.
+ * 그래서 저장소가 비워지거나 회원이 바뀌어도 따로 알려줄 필요가 없다.
+ * <p>
+ * 조회는 락 없이 처리한다. 최대 크기를 넘으면 LRU 대신 해시 순서로 앞쪽 1/8 을 비우는데,
+ * 로그인 회원은 요청이 올 때마다 다시 채워지므로 정확한 순서보다 조회 비용이 더 중요하다.
+ */
+@Component
+public class MemberCache {
+    private final MemberRepository memberRepository;
+    private final int maxSize;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @Autowired
+    public MemberCache(
+            MemberRepository memberRepository,
+            MemberCacheProperties properties
+    ) {
+        this(memberRepository, properties.getMaxSize());
+    }
+
+    public MemberCache(
+            MemberRepository memberRepository,
+            int maxSize
+    ) {
+        this.memberRepository = memberRepository;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param id Member.id
+     * @return 찾은 Member, 없으면 null
+     */
+    public Member get(Long id) {
+        if (id == null) {
+            return null;
+        }
+
+        // 저장소를 읽기 전에 generation 을 먼저 읽는다.
+        // 그 사이에 바뀌었으면 오래된 generation 으로 기록되어 다음 조회에서 다시 읽힌다.
+        long generation = memberRepository.getGeneration();
+        Entry entry = entries.get(id);
+        if (entry != null && entry.generation() == generation) {
+            hitCount.increment();
+            return entry.member();
+        }
+
+        missCount.increment();
+        Member member = memberRepository.findById(id);
+        if (member == null) {
+            // 없는 회원은 기억하지 않는다. ID 는 다시 발급되지 않는다.
+            if (entry != null) {
+                entries.remove(id, entry);
+            }
+            return null;
+        }
+
+        if (maxSize > 0) {
+            if (entry == null && entries.size() >= maxSize) {
+                evict();
+            }
+            entries.put(id, new Entry(member, generation));
+        }
+        return member;
+    }
+
+    /**
+     * 회원 정보를 바꾼 쪽에서 바로 반영하고 싶을 때 호출
+     */
+    public void invalidate(Long id) {
+        entries.remove(id);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 여러 스레드가 동시에 비울 수 있으므로 크기는 대략적으로만 지켜진다.
+     */
+    private void evict() {
+        int target = maxSize - Math.max(1, maxSize / 8);
+        Iterator<Long> it = entries.keySet().iterator();
+        while (it.hasNext() && entries.size() > target) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry(Member member, long generation) {
+    }
+}
@@ -0,0 +1,18 @@
+package hello.springcoremvc26.domain.member;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 로그인 회원 캐시 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.member.cache")
+public class MemberCacheProperties {
+    /**
+     * 캐시에 둘 최대 회원 수, 0 이하면 캐시하지 않고 매번 저장소에서 찾는다.
+     */
+    private int maxSize = 10_000;
+}
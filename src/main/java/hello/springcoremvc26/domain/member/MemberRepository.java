@@ -1,31 +1,98 @@
 package hello.springcoremvc26.domain.member;
 
+import hello.springcoremvc26.domain.journal.Journal;
+import hello.springcoremvc26.domain.journal.JournalRecord;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
-import java.util.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
- * 동시성 문제가 고려되어 있지 않음.
- * 실무에서는 ConcurrentHashMap, AtomicLong 사용 고려
+ * 회원 저장소
+ * <p>
+ * Member.id 기준 저장소와 함께 Member.loginId 기준 보조 인덱스를 유지한다.
+ * loginId 의 중복 여부는 인덱스의 putIfAbsent 로 원자적으로 판단한다.
+ * <p>
+ * 저널이 있으면 저장과 전체 삭제를 레코드로 남기고, 시작할 때 복구한다.
+ * <p>
+ * 이미 저장된 회원이 바뀌거나 지워지면 generation 이 올라가므로, MemberCache 는 이 값으로 오래된 항목을 가려낸다.
  */
 @Slf4j
 @Repository
 public class MemberRepository {
-    private static final Map<Long, Member> store = new HashMap<>();
-    private static long sequence = 0L;
+    private static final byte PUT = 1;
+    private static final byte CLEAR = 2;
+
+    private final Map<Long, Member> store = new ConcurrentHashMap<>();
+    private final Map<String, Member> loginIdIndex = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * null 이면 메모리에만 보관
+     */
+    private final Journal journal;
+
+    public MemberRepository() {
+        this((Journal) null);
+    }
+
+    @Autowired
+    public MemberRepository(@Qualifier("memberJournal") Optional<Journal> journal) {
+        this(journal.orElse(null));
+    }
+
+    public MemberRepository(Journal journal) {
+        this.journal = journal;
+        if (journal != null) {
+            journal.open(this::replay, this::writeSnapshot);
+        }
+    }
 
     /**
      * 저장
      *
      * @param member: 저장할 Member 객체
      * @return 저장된 Member
+     * @throws IllegalStateException 이미 같은 loginId 의 Member 가 있는 경우
      */
     public Member save(Member member) {
-        member.setId(++sequence);
+        return saveIfAbsent(member).orElseThrow(
+                () -> new IllegalStateException("이미 존재하는 loginId 입니다. loginId = " + member.getLoginId())
+        );
+    }
+
+    /**
+     * 같은 loginId 의 Member 가 없을 때만 저장
+     *
+     * @param member: 저장할 Member 객체
+     * @return 성공: 저장된 Member, 실패(loginId 중복): Optional.empty()
+     */
+    public Optional<Member> saveIfAbsent(Member member) {
+        // 인덱스에 노출되기 전에 ID 를 먼저 채운다.
+        // loginId 선점에 실패하면 발급된 ID 는 버려진다.
+        Long previousId = member.getId();
+        member.setId(sequence.incrementAndGet());
+        if (loginIdIndex.putIfAbsent(member.getLoginId(), member) != null) {
+            member.setId(previousId);
+            return Optional.empty();
+        }
+
         log.info("Member save: {}", member);
         store.put(member.getId(), member);
-        return member;
+        if (journal != null) {
+            journal.append(encode(member)).await();
+        }
+        return Optional.of(member);
     }
 
     /**
@@ -39,15 +106,16 @@ public class MemberRepository {
     }
 
     /**
-     * Member.id 가 아닌, Member.loginId
+     * Member.id 가 아닌, Member.loginId 를 기반으로 인덱스에서 찾음
      *
      * @param loginId: Member.loginId
      * @return 찾은 Member
      */
     public Optional<Member> findByLongId(String loginId) {
-        return findAll().stream()
-                .filter(m -> m.getLoginId().equals(loginId))
-                .findFirst();
+        if (loginId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(loginIdIndex.get(loginId));
     }
 
     /**
@@ -59,10 +127,65 @@ public class MemberRepository {
         return new ArrayList<>(store.values());
     }
 
+    /**
+     * 저장된 회원이 바뀌거나 지워질 때마다 올라가는 값, 새 회원 저장으로는 바뀌지 않는다.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
     /**
      * 저장된 모든 Member 제거, 테스트 용도
      */
     public void clearStore() {
         store.clear();
+        loginIdIndex.clear();
+        generation.incrementAndGet();
+        if (journal != null) {
+            journal.append(new byte[]{CLEAR}).await();
+        }
+    }
+
+    /**
+     * 저널 레코드 적용, 생성자에서 복구할 때만 호출된다.
+     */
+    private void replay(ByteBuffer buffer) {
+        JournalRecord.Reader reader = JournalRecord.reader(buffer);
+        switch (reader.type()) {
+            case PUT -> {
+                Member member = decode(reader);
+                sequence.accumulateAndGet(member.getId(), Math::max);
+                store.put(member.getId(), member);
+                loginIdIndex.put(member.getLoginId(), member);
+            }
+            case CLEAR -> {
+                store.clear();
+                loginIdIndex.clear();
+            }
+            default -> throw new IllegalStateException("unknown member record type: " + reader.type());
+        }
+    }
+
+    /**
+     * 회원은 저장 후 바뀌지 않으므로 현재 회원을 그대로 기록한다.
+     */
+    private void writeSnapshot(Consumer<byte[]> sink) {
+        store.values().forEach(member -> sink.accept(encode(member)));
+    }
+
+    private static byte[] encode(Member member) {
+        return JournalRecord.writer(PUT)
+                .putLong(member.getId())
+                .putString(member.getLoginId())
+                .putString(member.getName())
+                .putString(member.getPassword())
+                .toByteArray();
+    }
+
+    private static Member decode(JournalRecord.Reader reader) {
+        long id = reader.getLong();
+        Member member = new Member(reader.getString(), reader.getString(), reader.getString());
+        member.setId(id);
+        return member;
     }
 }
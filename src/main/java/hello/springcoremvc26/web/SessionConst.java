@@ -1,6 +1,11 @@
 package hello.springcoremvc26.web;
 
 public interface SessionConst {
-    String LOG_ID = "logId";
+    String REQUEST_TRACE = "requestTrace";
     String LOGIN_MEMBER = "loginMember";
+
+    /**
+     * 요청 속성, 요청 안에서 한 번 조회한 로그인 회원 ID
+     */
+    String RESOLVED_LOGIN_MEMBER = "resolvedLoginMember";
 }
@@ -0,0 +1,54 @@
+package hello.springcoremvc26.web.asset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 정적 리소스 경로 -> 내용 해시가 붙은 경로
+ * <p>
+ * 빌드 때 fingerprintAssets 태스크가 만든 asset-manifest.properties 를 읽는다.
+ * 템플릿에서는 {@code th:href="@{${@assets.path('css/main.css')}}"} 처럼 쓴다.
+ * 내용이 바뀌면 URL 이 바뀌므로, 응답은 만료 없이 캐시할 수 있다.
+ */
+@Slf4j
+public class AssetManifest {
+    public static final String URL_PREFIX = "/assets/";
+    public static final String MANIFEST_LOCATION = "asset-manifest.properties";
+
+    private final Map<String, String> paths = new HashMap<>();
+
+    public AssetManifest() {
+        this(new ClassPathResource(MANIFEST_LOCATION));
+    }
+
+    public AssetManifest(Resource manifest) {
+        if (!manifest.exists()) {
+            // IDE 에서 gradle 빌드 없이 실행한 경우
+            log.warn("{} not found, assets are served without fingerprint", MANIFEST_LOCATION);
+            return;
+        }
+
+        try {
+            Properties properties = PropertiesLoaderUtils.loadProperties(manifest);
+            properties.stringPropertyNames().forEach(name -> paths.put(name, properties.getProperty(name)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param asset 원래 경로, 예) css/main.css
+     * @return 해시가 붙은 URL 경로, 예) /assets/css/main-1a2b3c4d5e6f.css
+     */
+    public String path(String asset) {
+        return URL_PREFIX + paths.getOrDefault(asset, asset);
+    }
+}
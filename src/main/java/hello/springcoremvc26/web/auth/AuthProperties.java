@@ -0,0 +1,34 @@
+package hello.springcoremvc26.web.auth;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 로그인 체크 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.auth")
+public class AuthProperties {
+    /**
+     * 로그인 없이 접근 가능한 경로 (WhiteList)
+     * LoginCheckFilter 와 LoginCheckInterceptor 가 같은 목록을 사용한다.
+     */
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/", "/members/add", "/login", "/logout", "/assets/**", "/*.ico", "/error"
+    ));
+
+    /**
+     * 로그인 체크를 하는 곳, 둘 중 한 곳에서만 한다.
+     */
+    private Enforcement enforcement = Enforcement.FILTER;
+
+    public enum Enforcement {
+        FILTER,      // LoginCheckFilter, 디스패처 서블릿 전에 거른다.
+        INTERCEPTOR  // LoginCheckInterceptor, 핸들러가 정해진 뒤에 거른다.
+    }
+}
@@ -0,0 +1,62 @@
+package hello.springcoremvc26.web.auth;
+
+import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.domain.member.MemberCache;
+import hello.springcoremvc26.web.SessionConst;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 요청 단위로 기억하는 로그인 회원 조회
+ * <p>
+ * 세션에는 로그인 회원 ID(Long)만 보관한다.
+ * LoginCheckFilter, LoginCheckInterceptor, LoginMemberArgumentResolver 가 같은 요청에서 각각 세션을 읽지 않도록,
+ * 처음 조회한 결과(로그인하지 않은 경우 포함)를 요청 속성에 남겨두고 이후에는 그 값을 쓴다.
+ * 세션은 새로 만들지 않는다.
+ */
+public final class LoginMembers {
+    /**
+     * 로그인하지 않은 요청의 조회 결과
+     */
+    private static final Object ANONYMOUS = new Object();
+
+    private LoginMembers() {
+    }
+
+    /**
+     * 로그인 여부만 필요할 때 사용, Member 는 찾지 않는다.
+     *
+     * @param request HTTP Servlet Request
+     * @return 로그인 회원 ID, 로그인하지 않았으면 null
+     */
+    public static Long findId(HttpServletRequest request) {
+        Object resolved = request.getAttribute(SessionConst.RESOLVED_LOGIN_MEMBER);
+        if (resolved == null) {
+            HttpSession session = request.getSession(false);
+            Object memberId = session != null ? session.getAttribute(SessionConst.LOGIN_MEMBER) : null;
+            resolved = memberId instanceof Long ? memberId : ANONYMOUS;
+            request.setAttribute(SessionConst.RESOLVED_LOGIN_MEMBER, resolved);
+        }
+        return resolved instanceof Long memberId ? memberId : null;
+    }
+
+    /**
+     * @param request     HTTP Servlet Request
+     * @param memberCache 세션의 회원 ID 로 Member 를 찾을 캐시
+     * @return 로그인 회원, 로그인하지 않았거나 회원이 지워졌으면 null
+     */
+    public static Member find(
+            HttpServletRequest request,
+            MemberCache memberCache
+    ) {
+        Long memberId = findId(request);
+        return memberId != null ? memberCache.get(memberId) : null;
+    }
+
+    /**
+     * 로그인, 로그아웃으로 세션이 바뀐 뒤 같은 요청에서 다시 조회해야 할 때 호출
+     */
+    public static void forget(HttpServletRequest request) {
+        request.removeAttribute(SessionConst.RESOLVED_LOGIN_MEMBER);
+    }
+}
@@ -0,0 +1,172 @@
+package hello.springcoremvc26.web.auth;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 로그인 없이 접근 가능한 경로 검사기
+ * <p>
+ * 시작할 때 경로 패턴을 '/' 단위 세그먼트 트라이로 컴파일해두고,
+ * 요청 경로의 세그먼트를 한 번씩만 따라가며 검사한다. (패턴 수와 무관하게 경로 길이에 비례)
+ * <p>
+ * 지원하는 패턴 (Ant 스타일의 부분 집합)
+ * <ul>
+ *     <li>{@code /login} : 정확히 일치</li>
+ *     <li>{@code /members/*} : 세그먼트 하나</li>
+ *     <li>{@code /*.ico} : 세그먼트 하나 안의 접두사/접미사</li>
+ *     <li>{@code /css/**} : 0 개 이상의 나머지 세그먼트, 패턴 마지막에만 올 수 있다.</li>
+ * </ul>
+ */
+public class PublicPathMatcher {
+    private final List<String> patterns;
+    private final Node root = new Node();
+
+    public PublicPathMatcher(List<String> patterns) {
+        this.patterns = List.copyOf(patterns);
+        for (String pattern : this.patterns) {
+            compile(pattern);
+        }
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @param path 요청 경로 (예: request.getRequestURI())
+     * @return 패턴 중 하나라도 일치하면 true
+     */
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+
+        // 마지막 '/' 는 무시한다. ("/login/" == "/login")
+        int end = path.length();
+        if (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        List<Node> current = new ArrayList<>(4);
+        List<Node> next = new ArrayList<>(4);
+        current.add(root);
+
+        // "/" 는 세그먼트가 없다.
+        int start = end > 1 ? 1 : end + 1;
+        while (start <= end) {
+            int slash = path.indexOf('/', start);
+            int segmentEnd = slash < 0 || slash > end ? end : slash;
+            String segment = path.substring(start, segmentEnd);
+
+            for (Node node : current) {
+                if (node.matchesRest) {
+                    return true;
+                }
+                node.step(segment, next);
+            }
+            if (next.isEmpty()) {
+                return false;
+            }
+
+            List<Node> swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+            start = segmentEnd + 1;
+        }
+
+        for (Node node : current) {
+            if (node.terminal || node.matchesRest) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compile(String pattern) {
+        if (pattern == null || pattern.isEmpty() || pattern.charAt(0) != '/') {
+            throw new IllegalArgumentException("경로 패턴은 '/' 로 시작해야 합니다: " + pattern);
+        }
+
+        String[] segments = pattern.substring(1).split("/", -1);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                // "/" 또는 마지막 '/'
+                continue;
+            }
+
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' 는 패턴 마지막에만 올 수 있습니다: " + pattern);
+                }
+                node.matchesRest = true;
+                return;
+            }
+
+            node = node.child(segment, pattern);
+        }
+        node.terminal = true;
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<PartialEdge> partials = new ArrayList<>();
+        private Node anySegment;
+        private boolean terminal;
+        private boolean matchesRest;
+
+        Node child(String segment, String pattern) {
+            int star = segment.indexOf('*');
+            if (star < 0) {
+                return literals.computeIfAbsent(segment, key -> new Node());
+            }
+            if (segment.length() == 1) {
+                if (anySegment == null) {
+                    anySegment = new Node();
+                }
+                return anySegment;
+            }
+            if (segment.indexOf('*', star + 1) >= 0) {
+                throw new IllegalArgumentException("세그먼트 안에는 '*' 를 하나만 쓸 수 있습니다: " + pattern);
+            }
+
+            String prefix = segment.substring(0, star);
+            String suffix = segment.substring(star + 1);
+            for (PartialEdge edge : partials) {
+                if (edge.prefix.equals(prefix) && edge.suffix.equals(suffix)) {
+                    return edge.node;
+                }
+            }
+            PartialEdge edge = new PartialEdge(prefix, suffix, new Node());
+            partials.add(edge);
+            return edge.node;
+        }
+
+        void step(String segment, List<Node> next) {
+            Node literal = literals.get(segment);
+            if (literal != null) {
+                next.add(literal);
+            }
+            if (anySegment != null) {
+                next.add(anySegment);
+            }
+            for (PartialEdge edge : partials) {
+                if (edge.matches(segment)) {
+                    next.add(edge.node);
+                }
+            }
+        }
+    }
+
+    private record PartialEdge(String prefix, String suffix, Node node) {
+        boolean matches(String segment) {
+            return segment.length() >= prefix.length() + suffix.length()
+                    && segment.startsWith(prefix)
+                    && segment.endsWith(suffix);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package hello.springcoremvc26.web.filter;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+
+/**
+ * 해시가 붙은 정적 리소스 응답의 Cache-Control 에 immutable 을 붙인다.
+ * <p>
+ * 브라우저가 새로고침 때도 재검증 요청을 보내지 않는다.
+ * 리소스 핸들러가 정상 응답에만 Cache-Control 을 쓰므로, 404 같은 응답에는 붙지 않는다.
+ * (스프링 6.0.4 CacheControl 에는 immutable 설정이 없다.)
+ */
+public class AssetCacheFilter implements Filter {
+    private static final String IMMUTABLE = ", immutable";
+
+    @Override
+    public void doFilter(
+            ServletRequest request,
+            ServletResponse response,
+            FilterChain chain
+    ) throws IOException, ServletException {
+        chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response) {
+            @Override
+            public void setHeader(String name, String value) {
+                super.setHeader(name, immutable(name, value));
+            }
+
+            @Override
+            public void addHeader(String name, String value) {
+                super.addHeader(name, immutable(name, value));
+            }
+        });
+    }
+
+    private static String immutable(String name, String value) {
+        if (value != null && HttpHeaders.CACHE_CONTROL.equalsIgnoreCase(name) && value.contains("max-age")) {
+            return value + IMMUTABLE;
+        }
+        return value;
+    }
+}
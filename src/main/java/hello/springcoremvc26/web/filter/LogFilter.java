@@ -1,15 +1,30 @@
 package hello.springcoremvc26.web.filter;
 
-import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.asset.AssetManifest;
+import hello.springcoremvc26.web.id.IdGenerator;
+import hello.springcoremvc26.web.trace.RequestTrace;
+import hello.springcoremvc26.web.trace.RequestTrace.Phase;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.UUID;
 
+/**
+ * 요청마다 RequestTrace 를 만들어 요청에 연결하고, 요청이 끝나면 한 줄로 남긴다.
+ * 기록은 request-trace 로거로 남기며, 비동기 appender 가 출력한다. (logback-spring.xml)
+ */
 @Slf4j
+@RequiredArgsConstructor
 public class LogFilter implements Filter {
+    private static final Logger traceLog = LoggerFactory.getLogger("request-trace");
+
+    private final IdGenerator requestIdGenerator;
+
     @Override
     public void init(
             FilterConfig filterConfig
@@ -29,20 +44,33 @@ public class LogFilter implements Filter {
             FilterChain chain
     ) throws IOException, ServletException {
         HttpServletRequest req = (HttpServletRequest) request;
-        String requestURI = req.getRequestURI();
 
-        String uuid = UUID.randomUUID().toString();
-        req.setAttribute(SessionConst.LOG_ID, uuid);
+        // 해시가 붙은 정적 리소스는 추적하지 않는다.
+        if (req.getRequestURI().startsWith(AssetManifest.URL_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
 
-        log.info("[{}][{}] LogFilter doFilter Start", requestURI, uuid);
+        RequestTrace trace = new RequestTrace(
+                requestIdGenerator.generateId(), req.getMethod(), req.getRequestURI()
+        );
+        trace.mark(Phase.LOG_FILTER_START);
+        trace.bind(req);
 
         try {
             chain.doFilter(request, response);
         } catch (Exception e) {
-            log.error("[{}][{}] Filter Error: [{}]", requestURI, uuid, e.toString());
+            trace.error(e);
             throw e;
         } finally {
-            log.info("[{}][{}] LogFilter doFilter End", requestURI, uuid);
+            trace.mark(Phase.LOG_FILTER_END);
+            trace.complete(((HttpServletResponse) response).getStatus());
+
+            if (trace.getError() != null) {
+                traceLog.error("{}", trace, trace.getError());
+            } else if (traceLog.isInfoEnabled()) {
+                traceLog.info("{}", trace);
+            }
         }
     }
 }
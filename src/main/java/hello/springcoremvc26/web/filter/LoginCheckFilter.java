@@ -1,18 +1,21 @@
 package hello.springcoremvc26.web.filter;
 
-import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.auth.LoginMembers;
+import hello.springcoremvc26.web.auth.PublicPathMatcher;
+import hello.springcoremvc26.web.trace.RequestTrace;
+import hello.springcoremvc26.web.trace.RequestTrace.Phase;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.PatternMatchUtils;
 
 import java.io.IOException;
 
 @Slf4j
+@RequiredArgsConstructor
 public class LoginCheckFilter implements Filter {
-    private static final String[] whitelist = {"/", "/members/add", "/login", "/logout", "/css/*"};
+    private final PublicPathMatcher publicPathMatcher;
 
     @Override
     public void init(
@@ -36,29 +39,29 @@ public class LoginCheckFilter implements Filter {
         HttpServletResponse resp = (HttpServletResponse) response;
 
         String requestURI = req.getRequestURI();
-        String uuid = (String) req.getAttribute(SessionConst.LOG_ID);
+        RequestTrace trace = RequestTrace.current(req);
+        if (trace != null) {
+            trace.mark(Phase.LOGIN_FILTER_START);
+        }
 
         try {
-            log.info("[{}][{}] LoginFilter doFilter Start", requestURI, uuid);
-
             if (isLoginCheckPath(requestURI)) {
-                log.info("[{}][{}] 인증 체크 로직 실행", requestURI, uuid);
-
-                HttpSession session = req.getSession(false);
-                if (session == null || session.getAttribute(SessionConst.LOGIN_MEMBER) == null) {
-                    log.info("[{}][{}] 미인증 사용자 요청", requestURI, uuid);
+                if (LoginMembers.findId(req) == null) {
+                    // 미인증 사용자 요청
+                    if (trace != null) {
+                        trace.loginRedirect();
+                    }
                     resp.sendRedirect("/login?redirectURL=" + requestURI);
                     return;
                 }
             }
 
             chain.doFilter(request, response);
-        } catch (Exception e) {
-            // 예외 로깅 가능하지만, 톰캣까지 예외를 보내주어야함.
-            log.error(e.toString());
-            throw e;
         } finally {
-            log.info("[{}][{}] LoginFilter doFilter End", requestURI, uuid);
+            // 예외는 LogFilter 가 기록하고, 톰캣까지 그대로 전달된다.
+            if (trace != null) {
+                trace.mark(Phase.LOGIN_FILTER_END);
+            }
         }
     }
 
@@ -68,6 +71,6 @@ public class LoginCheckFilter implements Filter {
     private boolean isLoginCheckPath(
             String requestURI
     ) {
-        return !PatternMatchUtils.simpleMatch(whitelist, requestURI);
+        return !publicPathMatcher.matches(requestURI);
     }
 }
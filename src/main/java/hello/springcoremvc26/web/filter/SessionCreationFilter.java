@@ -0,0 +1,38 @@
+package hello.springcoremvc26.web.filter;
+
+import hello.springcoremvc26.web.metrics.SessionCreationMetrics;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청 처리 중에 컨테이너 세션이 새로 만들어졌으면 엔드포인트별로 센다.
+ * <p>
+ * 로그인하지 않은 요청이 세션을 만들지 않는지 확인하는 용도
+ */
+@RequiredArgsConstructor
+public class SessionCreationFilter implements Filter {
+    private final SessionCreationMetrics sessionCreationMetrics;
+
+    @Override
+    public void doFilter(
+            ServletRequest request,
+            ServletResponse response,
+            FilterChain chain
+    ) throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        boolean hadSession = req.getSession(false) != null;
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!hadSession && req.getSession(false) != null) {
+                Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                sessionCreationMetrics.increment(req.getMethod(), pattern != null ? pattern.toString() : null);
+            }
+        }
+    }
+}
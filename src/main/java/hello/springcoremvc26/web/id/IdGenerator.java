@@ -0,0 +1,10 @@
+package hello.springcoremvc26.web.id;
+
+/**
+ * ID 생성기
+ * <p>
+ * 구현체는 여러 스레드에서 동시에 호출된다.
+ */
+public interface IdGenerator {
+    String generateId();
+}
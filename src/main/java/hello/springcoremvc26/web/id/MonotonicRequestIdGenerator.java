@@ -0,0 +1,46 @@
+package hello.springcoremvc26.web.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청 로그 ID 생성기
+ * <p>
+ * 로그 상관관계 확인용이므로 예측 가능해도 된다.
+ * 프로세스마다 임의의 접두사를 붙이고, 뒤에는 단조 증가하는 카운터를 36 진수로 붙인다.
+ * 예) k3f9a2-1z
+ */
+public class MonotonicRequestIdGenerator implements IdGenerator {
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int PREFIX_LENGTH = 6;
+    private static final int MAX_COUNTER_LENGTH = 13; // Long.MAX_VALUE 의 36 진수 자리 수
+
+    private final char[] prefix;
+    private final AtomicLong counter = new AtomicLong();
+
+    public MonotonicRequestIdGenerator() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        prefix = new char[PREFIX_LENGTH + 1];
+        for (int i = 0; i < PREFIX_LENGTH; i++) {
+            prefix[i] = DIGITS[random.nextInt(DIGITS.length)];
+        }
+        prefix[PREFIX_LENGTH] = '-';
+    }
+
+    @Override
+    public String generateId() {
+        long value = counter.incrementAndGet();
+
+        // 뒤에서부터 채우고, 앞에 접두사를 붙여 String 하나만 만든다.
+        char[] chars = new char[prefix.length + MAX_COUNTER_LENGTH];
+        int position = chars.length;
+        do {
+            chars[--position] = DIGITS[(int) (value % 36)];
+            value /= 36;
+        } while (value > 0);
+
+        position -= prefix.length;
+        System.arraycopy(prefix, 0, chars, position, prefix.length);
+        return new String(chars, position, chars.length - position);
+    }
+}
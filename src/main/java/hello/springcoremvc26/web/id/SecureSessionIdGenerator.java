@@ -0,0 +1,75 @@
+package hello.springcoremvc26.web.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션 ID 생성기
+ * <p>
+ * CPU 수만큼 DRBG SecureRandom 을 두고 스레드가 임의로 하나를 골라 쓰므로 경합이 적고,
+ * 난수는 한 번에 여러 ID 분량을 받아두고 나누어 쓴다.
+ * 스레드마다 두지 않는 것은, 요청마다 새 스레드인 가상 스레드에서 매번 DRBG 를 새로 만들지 않기 위해서다.
+ * 128 bit 난수를 URL-safe Base64 (22 자) 로 인코딩한다.
+ */
+public class SecureSessionIdGenerator implements IdGenerator {
+    private static final int ID_BYTES = 16;
+    private static final int BUFFERED_IDS = 64;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RandomBuffer[] buffers;
+    private final int mask;
+
+    public SecureSessionIdGenerator() {
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.mask = size - 1;
+        this.buffers = new RandomBuffer[size];
+        for (int i = 0; i < size; i++) {
+            buffers[i] = new RandomBuffer();
+        }
+    }
+
+    @Override
+    public String generateId() {
+        RandomBuffer buffer = buffers[ThreadLocalRandom.current().nextInt() & mask];
+        // synchronized 는 가상 스레드를 캐리어 스레드에 고정시키므로 Lock 을 쓴다.
+        buffer.lock.lock();
+        try {
+            return buffer.next();
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+
+    private static class RandomBuffer {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final SecureRandom random;
+        private final byte[] buffer = new byte[ID_BYTES * BUFFERED_IDS];
+        private final byte[] id = new byte[ID_BYTES];
+        private int position = buffer.length;
+
+        RandomBuffer() {
+            try {
+                random = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String next() {
+            if (position == buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+
+            System.arraycopy(buffer, position, id, 0, ID_BYTES);
+            // 사용한 난수는 남겨두지 않는다.
+            Arrays.fill(buffer, position, position + ID_BYTES, (byte) 0);
+            position += ID_BYTES;
+            return ENCODER.encodeToString(id);
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package hello.springcoremvc26.web.interceptor;
 
-import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.metrics.HandlerMetrics;
+import hello.springcoremvc26.web.trace.RequestTrace;
+import hello.springcoremvc26.web.trace.RequestTrace.Phase;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
+/**
+ * 인터셉터 단계 시각을 RequestTrace 에 남기고, 요청이 끝나면 핸들러별 처리 시간을 HandlerMetrics 에 기록한다.
+ * 처리 시간은 preHandle 부터 afterCompletion 까지(핸들러 + 뷰 렌더링)이다.
+ */
 @Slf4j
+@RequiredArgsConstructor
 public class LogInterceptor implements HandlerInterceptor {
+    private final HandlerMetrics handlerMetrics;
 
     @Override
     public boolean preHandle(
@@ -17,17 +25,13 @@ public class LogInterceptor implements HandlerInterceptor {
             HttpServletResponse response,
             Object handler
     ) throws Exception {
-        String requestURI = request.getRequestURI();
-        String uuid = (String) request.getAttribute(SessionConst.LOG_ID);
-
-        // @RequestMapping: HandlerMethod
-        // 정적 리소스: ResourceHttpRequestMethod
-        if (handler instanceof HandlerMethod) {
-            // 호출할 컨트롤러 메서드의 모든 정보가 포함되어 있다.
-            HandlerMethod hm = (HandlerMethod) handler;
+        RequestTrace trace = RequestTrace.current(request);
+        if (trace != null) {
+            trace.mark(Phase.LOG_INTERCEPTOR_PRE);
+            // @RequestMapping: HandlerMethod
+            // 정적 리소스: ResourceHttpRequestHandler
+            trace.handler(handler);
         }
-
-        log.info("[{}][{}] LogInterceptor preHandle", requestURI, uuid);
         return true;
     }
 
@@ -38,10 +42,7 @@ public class LogInterceptor implements HandlerInterceptor {
             Object handler,
             ModelAndView modelAndView
     ) throws Exception {
-        String requestURI = request.getRequestURI();
-        String uuid = (String) request.getAttribute(SessionConst.LOG_ID);
-
-        log.info("[{}][{}] LogInterceptor postHandle", requestURI, uuid);
+        RequestTrace.markCurrent(request, Phase.LOG_INTERCEPTOR_POST);
     }
 
     @Override
@@ -51,14 +52,23 @@ public class LogInterceptor implements HandlerInterceptor {
             Object handler,
             Exception ex
     ) throws Exception {
-        String requestURI = request.getRequestURI();
-        String uuid = (String) request.getAttribute(SessionConst.LOG_ID);
-
-        log.info("[{}][{}] LogInterceptor afterComplete", requestURI, uuid);
+        RequestTrace trace = RequestTrace.current(request);
+        if (trace == null) {
+            if (ex != null) {
+                log.error("LogInterceptor afterComplete Error: ", ex);
+            }
+            return;
+        }
 
+        trace.mark(Phase.LOG_INTERCEPTOR_AFTER);
         if (ex != null) {
-            log.error("LogInterceptor afterComplete Error: ", ex);
-            ex.printStackTrace();
+            trace.error(ex);
+        }
+
+        long nanos = trace.elapsedNanos(Phase.LOG_INTERCEPTOR_PRE, Phase.LOG_INTERCEPTOR_AFTER);
+        if (nanos >= 0) {
+            // 예외가 밖으로 나가는 중이면 아직 상태 코드가 정해지지 않았으므로 500 으로 센다.
+            handlerMetrics.record(handler, ex != null ? 500 : response.getStatus(), nanos);
         }
     }
 }
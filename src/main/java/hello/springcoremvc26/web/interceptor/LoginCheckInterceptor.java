@@ -1,14 +1,13 @@
 package hello.springcoremvc26.web.interceptor;
 
-import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.auth.LoginMembers;
+import hello.springcoremvc26.web.trace.RequestTrace;
+import hello.springcoremvc26.web.trace.RequestTrace.Phase;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
-@Slf4j
 public class LoginCheckInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(
@@ -16,14 +15,17 @@ public class LoginCheckInterceptor implements HandlerInterceptor {
             HttpServletResponse response,
             Object handler
     ) throws Exception {
-        String requestURI = request.getRequestURI();
-        String uuid = (String) request.getAttribute(SessionConst.LOG_ID);
-        log.info("[{}][{}] LoginCheckInterceptor preHandle", requestURI, uuid);
+        RequestTrace trace = RequestTrace.current(request);
+        if (trace != null) {
+            trace.mark(Phase.LOGIN_INTERCEPTOR_PRE);
+        }
 
-        HttpSession session = request.getSession();
-        if (session == null || session.getAttribute(SessionConst.LOGIN_MEMBER) == null) {
-            log.info("[{}][{}] 미인증 사용자 요청", requestURI, uuid);
-            response.sendRedirect("/login?redirectURL=" + requestURI);
+        if (LoginMembers.findId(request) == null) {
+            // 미인증 사용자 요청
+            if (trace != null) {
+                trace.loginRedirect();
+            }
+            response.sendRedirect("/login?redirectURL=" + request.getRequestURI());
             return false;
         }
 
@@ -37,10 +39,7 @@ public class LoginCheckInterceptor implements HandlerInterceptor {
             Object handler,
             ModelAndView modelAndView
     ) throws Exception {
-        String requestURI = request.getRequestURI();
-        String uuid = (String) request.getAttribute(SessionConst.LOG_ID);
-
-        log.info("[{}][{}] LoginCheckInterceptor postHandle", requestURI, uuid);
+        RequestTrace.markCurrent(request, Phase.LOGIN_INTERCEPTOR_POST);
     }
 
     @Override
@@ -50,9 +49,6 @@ public class LoginCheckInterceptor implements HandlerInterceptor {
             Object handler,
             Exception ex
     ) throws Exception {
-        String requestURI = request.getRequestURI();
-        String uuid = (String) request.getAttribute(SessionConst.LOG_ID);
-
-        log.info("[{}][{}] LoginCheckInterceptor afterCompletion", requestURI, uuid);
+        RequestTrace.markCurrent(request, Phase.LOGIN_INTERCEPTOR_AFTER);
     }
 }
@@ -0,0 +1,66 @@
+package hello.springcoremvc26.web.item;
+
+import hello.springcoremvc26.domain.item.Item;
+import hello.springcoremvc26.domain.item.ItemPage;
+import hello.springcoremvc26.domain.item.ItemSearch;
+import hello.springcoremvc26.domain.item.ItemSort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 상품 목록 API, 화면(/items)과 같은 커서 페이지네이션
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/items")
+public class ItemApiController {
+    private final ItemPageFinder itemPageFinder;
+
+    /**
+     * 상품 목록 한 페이지
+     * <p>
+     * 다음 페이지는 응답의 next 를 cursor 로 넘겨서 조회한다. 마지막 페이지면 next 는 null 이다.
+     */
+    @GetMapping
+    public ItemPageResponse items(
+            @RequestParam(defaultValue = "ID") ItemSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ItemPageFinder.DEFAULT_SIZE) int size
+    ) {
+        ItemPage page = itemPageFinder.find(sort, cursor, size);
+        return new ItemPageResponse(page.items(), page.hasNext() ? page.next().encode() : null);
+    }
+
+    /**
+     * 상품 검색 한 페이지
+     * <p>
+     * 상품명은 토큰 접두어, 가격과 수량은 양 끝을 포함하는 범위로 검색한다. 모든 조건은 AND 로 묶인다.
+     * 상품명이 있으면 ID 순서, 없으면 가격 범위가 있을 때 가격 순서, 수량 범위만 있으면 수량 순서로 반환한다.
+     * 한 번에 확인하는 후보 수에 상한이 있어서, next 가 있어도 size 보다 적거나 빈 목록이 올 수 있다.
+     */
+    @GetMapping("/search")
+    public ItemPageResponse search(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer priceMin,
+            @RequestParam(required = false) Integer priceMax,
+            @RequestParam(required = false) Integer quantityMin,
+            @RequestParam(required = false) Integer quantityMax,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ItemPageFinder.DEFAULT_SIZE) int size
+    ) {
+        ItemSearch search = new ItemSearch(name, priceMin, priceMax, quantityMin, quantityMax);
+        ItemPage page = itemPageFinder.search(search, cursor, size);
+        return new ItemPageResponse(page.items(), page.hasNext() ? page.next().encode() : null);
+    }
+
+    public record ItemPageResponse(
+            List<Item> items,
+            String next
+    ) {
+    }
+}
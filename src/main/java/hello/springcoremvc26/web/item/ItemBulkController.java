@@ -0,0 +1,64 @@
+package hello.springcoremvc26.web.item;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 상품 일괄 가져오기/내보내기 API
+ * <p>
+ * 예) curl -X POST -H 'Content-Type: text/csv' --data-binary @items.csv /api/items/import
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/items")
+public class ItemBulkController {
+    private final ItemBulkService itemBulkService;
+
+    /**
+     * 요청 본문을 한 줄씩 읽어서 저장한다. 형식은 Content-Type (text/csv, application/x-ndjson) 으로 정한다.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ItemBulkService.ImportResult importItems(
+            HttpServletRequest request
+    ) throws IOException {
+        ItemFormat format = ItemFormat.CSV.getMediaType().isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? ItemFormat.CSV : ItemFormat.NDJSON;
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        return itemBulkService.importItems(request.getReader(), format, LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * 모든 상품을 ID 순서로 내려준다. 응답은 쓰는 대로 전송되므로 전체 목록을 메모리에 만들지 않는다.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(defaultValue = "CSV") ItemFormat format
+    ) {
+        StreamingResponseBody body = out -> itemBulkService.exportItems(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), format
+        );
+
+        String extension = format.name().toLowerCase();
+        return ResponseEntity.ok()
+                .contentType(new MediaType(format.getMediaType(), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items." + extension + "\"")
+                .body(body);
+    }
+}
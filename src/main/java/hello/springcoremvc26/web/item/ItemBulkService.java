@@ -0,0 +1,354 @@
+package hello.springcoremvc26.web.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hello.springcoremvc26.domain.item.Item;
+import hello.springcoremvc26.domain.item.ItemRepository;
+import hello.springcoremvc26.dto.item.ItemSaveDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 상품 일괄 가져오기/내보내기
+ * <p>
+ * 한 줄씩 읽고 쓰므로 상품 수와 상관없이 메모리 사용량이 일정하다.
+ * 내보낸 파일은 그대로 다시 가져올 수 있다. id 는 무시하고 새로 발급한다.
+ * 가져오기는 BATCH_SIZE 개씩 모아서 저장하고, 오류는 MAX_ERRORS 개까지만 남긴다.
+ * 한 행은 MAX_RECORD_LENGTH 자까지만 읽고, 넘으면 오류로 남긴 뒤 다음 줄부터 다시 읽는다.
+ * 닫히지 않은 큰따옴표 하나 때문에 나머지 본문 전체를 한 행으로 읽지 않기 위해서다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemBulkService {
+    static final int BATCH_SIZE = 1000;
+    static final int MAX_ERRORS = 100;
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+    private static final String CSV_HEADER = "itemName,price,quantity";
+    private static final List<String> CSV_HEADER_FIELDS = List.of("itemName", "price", "quantity");
+    private static final List<String> CSV_EXPORT_HEADER_FIELDS = List.of("id", "itemName", "price", "quantity");
+
+    private final ItemRepository itemRepository;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 상품 가져오기, 줄마다 ItemSaveDto 검증과 totalPriceMin 검증을 통과한 상품만 저장한다.
+     *
+     * @param reader 요청 본문
+     * @param format 본문 형식
+     * @param locale 오류 메시지 언어
+     * @return 저장/거절 수와 오류 목록
+     */
+    public ImportResult importItems(
+            Reader reader,
+            ItemFormat format,
+            Locale locale
+    ) throws IOException {
+        RecordReader records = new RecordReader(reader, format == ItemFormat.CSV);
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        List<RowError> errors = new ArrayList<>();
+        long imported = 0;
+        long rejected = 0;
+
+        String line;
+        while ((line = records.next()) != null) {
+            long startLine = records.getStartLine();
+            String error;
+            if (records.isTooLong()) {
+                error = messageSource.getMessage("recordTooLong", new Object[]{MAX_RECORD_LENGTH}, locale);
+            } else if (line.isBlank()) {
+                continue;
+            } else {
+                try {
+                    List<String> fields = format == ItemFormat.CSV ? splitCsv(line) : null;
+                    if (fields != null && startLine == 1 && isCsvHeader(fields)) {
+                        continue;
+                    }
+                    ItemSaveDto dto = fields != null ? parseCsv(fields, line) : ndjsonReader().readValue(line);
+                    error = dto == null ? messageSource.getMessage("typeMismatch", null, locale) : validate(dto, locale);
+                    if (error == null) {
+                        batch.add(new Item(dto.getItemName(), dto.getPrice(), dto.getQuantity()));
+                    }
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    error = messageSource.getMessage("typeMismatch", null, locale);
+                }
+            }
+
+            if (error != null) {
+                rejected++;
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(new RowError(startLine, error));
+                }
+            }
+
+            if (batch.size() == BATCH_SIZE) {
+                imported += itemRepository.saveAll(batch).size();
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            imported += itemRepository.saveAll(batch).size();
+        }
+        return new ImportResult(imported, rejected, errors);
+    }
+
+    /**
+     * 모든 상품을 ID 순서로 내보낸다.
+     */
+    public void exportItems(
+            Writer writer,
+            ItemFormat format
+    ) throws IOException {
+        if (format == ItemFormat.CSV) {
+            writer.write("id," + CSV_HEADER + "\n");
+        }
+
+        try {
+            itemRepository.forEach(item -> {
+                try {
+                    if (format == ItemFormat.CSV) {
+                        writer.write(item.getId() + "," + csvField(item.getItemName()) + ","
+                                + nullToEmpty(item.getPrice()) + "," + nullToEmpty(item.getQuantity()) + "\n");
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(new ItemRow(
+                                item.getId(), item.getItemName(), item.getPrice(), item.getQuantity()
+                        )));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * ItemSaveDto 검증 + 가격 * 수량 최소 금액 검증 (ItemController.addItem 과 같은 규칙)
+     *
+     * @return 오류 메시지, 통과하면 null
+     */
+    private String validate(ItemSaveDto dto, Locale locale) {
+        for (ConstraintViolation<ItemSaveDto> violation : validator.validate(dto)) {
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+
+        // 가격, 수량 최대값의 곱은 int 범위를 넘는다.
+        long resultPrice = (long) dto.getPrice() * dto.getQuantity();
+        if (resultPrice < 10000) {
+            return messageSource.getMessage("totalPriceMin", new Object[]{10000, resultPrice}, locale);
+        }
+        return null;
+    }
+
+    /**
+     * 내보낸 NDJSON 의 id 처럼 ItemSaveDto 에 없는 필드는 무시한다.
+     */
+    private ObjectReader ndjsonReader() {
+        return objectMapper.readerFor(ItemSaveDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * 가져오기 형식(itemName,...) 또는 내보내기 형식(id,itemName,...) 헤더, 필드가 모두 같아야 한다.
+     * "itemName..." 으로 시작하는 상품명의 첫 행을 헤더로 오해하지 않는다.
+     */
+    private static boolean isCsvHeader(List<String> fields) {
+        return fields.equals(CSV_HEADER_FIELDS) || fields.equals(CSV_EXPORT_HEADER_FIELDS);
+    }
+
+    /**
+     * CSV 한 행을 필드로 나눈다. 큰따옴표로 감싼 필드 안의 쉼표, 줄바꿈과 "" 를 처리한다.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 필드가 4 개면 내보낸 파일처럼 앞에 id 가 있는 것으로 보고, id 는 무시하고 새로 발급한다.
+     */
+    private static ItemSaveDto parseCsv(List<String> fields, String line) {
+        if (fields.size() == 4) {
+            fields = fields.subList(1, 4);
+        } else if (fields.size() != 3) {
+            throw new IllegalArgumentException("expected [id,]" + CSV_HEADER + ": " + line);
+        }
+
+        ItemSaveDto dto = new ItemSaveDto();
+        dto.setItemName(fields.get(0));
+        dto.setPrice(parseInteger(fields.get(1)));
+        dto.setQuantity(parseInteger(fields.get(2)));
+        return dto;
+    }
+
+    private static Integer parseInteger(String value) {
+        return value.isBlank() ? null : Integer.valueOf(value.trim());
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String nullToEmpty(Integer value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * 본문을 한 행씩 읽는다. CSV 는 큰따옴표 안의 줄바꿈까지 한 행으로 잇고, 줄 끝의 \r\n 은 \n 으로 본다.
+     * <p>
+     * 행이 MAX_RECORD_LENGTH 자를 넘으면 그 줄의 나머지를 버리고 isTooLong() 을 true 로 둔다.
+     * 다음 행은 큰따옴표 상태와 상관없이 다음 줄부터 새로 읽는다.
+     */
+    private static final class RecordReader {
+        private final Reader reader;
+        private final boolean csv;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder record = new StringBuilder();
+        private int position;
+        private int limit;
+        private long lineNumber;
+        private long startLine;
+        private boolean tooLong;
+
+        RecordReader(Reader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        /**
+         * @return 다음 행, 본문이 끝났으면 null
+         */
+        String next() throws IOException {
+            record.setLength(0);
+            tooLong = false;
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+
+            startLine = ++lineNumber;
+            boolean quoted = false;
+            for (; c >= 0; c = read()) {
+                if (c == '\n') {
+                    if (record.length() > 0 && record.charAt(record.length() - 1) == '\r') {
+                        record.setLength(record.length() - 1);
+                    }
+                    if (!quoted) {
+                        break;
+                    }
+                    lineNumber++;
+                } else if (c == '"' && csv) {
+                    // 필드 안의 "" 는 두 번 바뀌어서 그대로다.
+                    quoted = !quoted;
+                }
+
+                if (record.length() == MAX_RECORD_LENGTH) {
+                    tooLong = true;
+                    skipLine(c);
+                    record.setLength(0);
+                    break;
+                }
+                record.append((char) c);
+            }
+            return record.toString();
+        }
+
+        long getStartLine() {
+            return startLine;
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        private void skipLine(int c) throws IOException {
+            while (c >= 0 && c != '\n') {
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+
+    public record ImportResult(
+            long imported,
+            long rejected,
+            List<RowError> errors
+    ) {
+    }
+
+    /**
+     * @param line    1 부터 시작하는 줄 번호
+     * @param message 오류 메시지
+     */
+    public record RowError(
+            long line,
+            String message
+    ) {
+    }
+
+    private record ItemRow(
+            Long id,
+            String itemName,
+            Integer price,
+            Integer quantity
+    ) {
+    }
+}
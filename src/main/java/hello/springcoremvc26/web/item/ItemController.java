@@ -1,40 +1,99 @@
 package hello.springcoremvc26.web.item;
 
 import hello.springcoremvc26.domain.item.Item;
+import hello.springcoremvc26.domain.item.ItemPage;
 import hello.springcoremvc26.domain.item.ItemRepository;
+import hello.springcoremvc26.domain.item.ItemSort;
 import hello.springcoremvc26.dto.item.ItemSaveDto;
 import hello.springcoremvc26.dto.item.ItemUpdateDto;
+import hello.springcoremvc26.web.view.FragmentCache;
+import hello.springcoremvc26.web.view.FragmentRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    /**
+     * 재시작하면 상품 버전이 처음부터 다시 시작하므로, 이전 실행의 ETag 와 겹치지 않도록 붙인다.
+     */
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
     private final ItemRepository itemRepository;
+    private final ItemPageFinder itemPageFinder;
+    private final FragmentCache fragmentCache;
+    private final FragmentRenderer fragmentRenderer;
 
+    /**
+     * 상품 목록, 전체가 아니라 커서 다음부터 size 개만 보여준다.
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(
+            @RequestParam(defaultValue = "ID") ItemSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ItemPageFinder.DEFAULT_SIZE) int size,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Model model
+    ) {
+        // 상품이 하나라도 바뀌면 stamp 가 바뀐다. 304 면 템플릿을 렌더링하지 않는다.
+        long stamp = itemRepository.getModificationStamp();
+        String etag = "items-" + stamp + "-" + sort + "-" + size + "-" + cursor;
+        if (notModified(etag, webRequest, response)) {
+            return null;
+        }
+
+        // 상품 행은 stamp 가 같으면 같은 HTML 이므로, 다른 사용자가 렌더링한 조각을 그대로 쓴다.
+        // 페이지 조회보다 stamp 를 먼저 읽으므로, 그 사이 변경이 있었다면 다음 stamp 의 키로 다시 렌더링된다.
+        ItemPage page = itemPageFinder.find(sort, cursor, size);
+        ItemRowsKey key = new ItemRowsKey(stamp, sort, cursor, size, LocaleContextHolder.getLocale());
+        String rows = fragmentCache.get(key, () -> fragmentRenderer.render(
+                "items/items", "rows", Map.of("items", page.items()), request, response
+        ));
+
+        model.addAttribute("rows", rows);
+        model.addAttribute("next", page.hasNext() ? page.next().encode() : null);
+        model.addAttribute("sort", sort);
+        model.addAttribute("sorts", ItemSort.values());
+        model.addAttribute("size", ItemPageFinder.clampSize(size));
         return "items/items";
     }
 
     @GetMapping("/{itemId}")
     public String item(
             @PathVariable long itemId,
+            @RequestParam(required = false) String status,
+            WebRequest webRequest,
+            HttpServletResponse response,
             Model model
     ) {
         Item item = itemRepository.findById(itemId);
+
+        // 저장 직후 화면(status)은 내용이 달라지므로 조건부 요청으로 처리하지 않는다.
+        if (item != null && status == null
+                && notModified("item-" + itemId + "-" + item.getVersion(), webRequest, response)) {
+            return null;
+        }
+
         model.addAttribute("item", item);
         return "items/item";
     }
@@ -110,4 +169,32 @@ public class ItemController {
         return "redirect:/items/{itemId}";
     }
 
+    /**
+     * If-None-Match 가 ETag 와 같으면 304 를 응답한다.
+     * 같은 내용이라도 언어에 따라 화면이 다르므로 ETag 에 Locale 을 포함한다.
+     *
+     * @return 304 로 응답했으면 true, 이때는 뷰를 반환하지 않는다.
+     */
+    private boolean notModified(
+            String tag,
+            WebRequest webRequest,
+            HttpServletResponse response
+    ) {
+        // 로그인 사용자 화면이므로 공유 캐시에는 두지 않고, 매번 재검증한다.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        String etag = ETAG_EPOCH + "-" + tag + "-" + LocaleContextHolder.getLocale().toLanguageTag();
+        return webRequest.checkNotModified(etag);
+    }
+
+    /**
+     * 상품 목록 행 조각 캐시 키
+     */
+    private record ItemRowsKey(
+            long stamp,
+            ItemSort sort,
+            String cursor,
+            int size,
+            Locale locale
+    ) {
+    }
 }
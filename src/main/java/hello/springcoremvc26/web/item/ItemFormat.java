@@ -0,0 +1,28 @@
+package hello.springcoremvc26.web.item;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 상품 일괄 가져오기/내보내기 형식
+ */
+public enum ItemFormat {
+    /**
+     * itemName,price,quantity (내보낼 때는 앞에 id, 가져올 때 id 는 무시), 첫 줄은 헤더
+     */
+    CSV(new MediaType("text", "csv")),
+
+    /**
+     * 한 줄에 JSON 객체 하나, 예) {"itemName":"itemA","price":10000,"quantity":10}
+     */
+    NDJSON(new MediaType("application", "x-ndjson"));
+
+    private final MediaType mediaType;
+
+    ItemFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
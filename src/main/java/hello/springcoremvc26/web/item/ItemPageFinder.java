@@ -0,0 +1,66 @@
+package hello.springcoremvc26.web.item;
+
+import hello.springcoremvc26.domain.item.ItemCursor;
+import hello.springcoremvc26.domain.item.ItemPage;
+import hello.springcoremvc26.domain.item.ItemRepository;
+import hello.springcoremvc26.domain.item.ItemSearch;
+import hello.springcoremvc26.domain.item.ItemSort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 상품 목록 화면과 API 가 같이 쓰는 페이지 조회
+ * <p>
+ * 페이지 크기를 제한하고, 커서 문자열을 해석한다. 잘못된 커서는 400 으로 응답한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemPageFinder {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final ItemRepository itemRepository;
+
+    /**
+     * @param sort   정렬 기준
+     * @param cursor 이전 페이지가 준 커서, 첫 페이지면 null
+     * @param size   페이지 크기, 1 ~ MAX_SIZE 로 맞춘다.
+     */
+    public ItemPage find(
+            ItemSort sort,
+            String cursor,
+            int size
+    ) {
+        return itemRepository.findPage(sort, decode(cursor, sort), clampSize(size));
+    }
+
+    /**
+     * @param search 검색 조건, 결과 정렬은 search.sort() 로 정해진다.
+     * @param cursor 이전 페이지가 준 커서, 첫 페이지면 null
+     * @param size   페이지 크기, 1 ~ MAX_SIZE 로 맞춘다.
+     */
+    public ItemPage search(
+            ItemSearch search,
+            String cursor,
+            int size
+    ) {
+        return itemRepository.search(search, decode(cursor, search.sort()), clampSize(size));
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    private static ItemCursor decode(String cursor, ItemSort sort) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return ItemCursor.decode(cursor, sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 커서입니다.", e);
+        }
+    }
+}
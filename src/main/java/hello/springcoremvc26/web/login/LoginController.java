@@ -1,13 +1,17 @@
 package hello.springcoremvc26.web.login;
 
 import hello.springcoremvc26.domain.login.LoginService;
+import hello.springcoremvc26.domain.login.LoginThrottle;
 import hello.springcoremvc26.domain.member.Member;
 import hello.springcoremvc26.dto.login.LoginDto;
 import hello.springcoremvc26.web.SessionConst;
+import hello.springcoremvc26.web.auth.LoginMembers;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
@@ -21,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequiredArgsConstructor
 public class LoginController {
     private final LoginService loginService;
+    private final LoginThrottle loginThrottle;
 
     @GetMapping("/login")
     public String loginForm(
@@ -34,12 +39,23 @@ public class LoginController {
             @RequestParam(defaultValue = "/") String redirectURL,
             @Validated @ModelAttribute("loginForm") LoginDto form,
             BindingResult bindingResult,
-            HttpServletRequest req
+            HttpServletRequest req,
+            HttpServletResponse resp
     ) {
         if (bindingResult.hasErrors()) {
             return "login/loginForm";
         }
 
+        // 시도 제한을 넘으면 회원 조회 없이 거절
+        // 기본은 연결한 주소다. 프록시 뒤에 배포하면 server.forward-headers-strategy 와
+        // server.tomcat.remoteip.internal-proxies 를 설정해야 원래 클라이언트 주소가 들어온다.
+        // 설정하지 않으면 모든 클라이언트가 프록시 주소 하나의 버킷을 같이 쓴다.
+        if (!loginThrottle.tryAcquire(form.getLoginId(), req.getRemoteAddr())) {
+            bindingResult.reject("loginThrottled", "로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            resp.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return "login/loginForm";
+        }
+
         // 로그인 시도
         Member loginMember = loginService.login(form.getLoginId(), form.getPassword());
         log.info("login? {}", loginMember);
@@ -52,8 +68,9 @@ public class LoginController {
 
         // 로그인 성공 처리 - HttpSession 사용
         HttpSession session = req.getSession();
-        // 세션에 로그인 회원 정보 보관
-        session.setAttribute(SessionConst.LOGIN_MEMBER, loginMember);
+        // 세션에는 로그인 회원 ID 만 보관, Member 는 요청마다 MemberCache 에서 찾는다.
+        session.setAttribute(SessionConst.LOGIN_MEMBER, loginMember.getId());
+        LoginMembers.forget(req);
 
         return "redirect:" + redirectURL;
     }
@@ -67,6 +84,7 @@ public class LoginController {
         if (session != null) {
             session.invalidate();
         }
+        LoginMembers.forget(req);
         return "redirect:/";
     }
 }
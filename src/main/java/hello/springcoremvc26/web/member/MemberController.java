@@ -33,7 +33,12 @@ public class MemberController {
             return "members/addMemberForm";
         }
 
-        memberRepository.save(member);
+        // loginId 중복 확인과 저장을 한 번에 처리
+        if (memberRepository.saveIfAbsent(member).isEmpty()) {
+            bindingResult.rejectValue("loginId", "duplicate", "이미 사용중인 로그인 ID 입니다.");
+            return "members/addMemberForm";
+        }
+
         return "redirect:/";
     }
 }
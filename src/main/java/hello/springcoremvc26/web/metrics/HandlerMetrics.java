@@ -0,0 +1,120 @@
+package hello.springcoremvc26.web.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 컨트롤러 메서드별 지연시간 분포와 응답 상태 수
+ * <p>
+ * 키는 HandlerMethod 의 Method 이므로 핸들러 수만큼만 생긴다.
+ * 한 번 만들어진 뒤의 기록은 맵 조회, 히스토그램 칸 증가, 상태 칸 증가뿐이라 요청마다 할당하지 않는다.
+ */
+@Component
+public class HandlerMetrics {
+    /**
+     * 컨트롤러 메서드가 아닌 핸들러 (정적 리소스 등)
+     */
+    public static final String UNMAPPED = "unmapped";
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final Map<Method, Stats> stats = new ConcurrentHashMap<>();
+    private final Stats unmapped = new Stats(UNMAPPED);
+
+    /**
+     * @param handler 요청을 처리한 핸들러
+     * @param status  응답 상태 코드
+     * @param nanos   처리 시간
+     */
+    public void record(
+            Object handler,
+            int status,
+            long nanos
+    ) {
+        Stats target = unmapped;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Method method = handlerMethod.getMethod();
+            target = stats.get(method);
+            if (target == null) {
+                target = stats.computeIfAbsent(method, key -> new Stats(nameOf(handlerMethod)));
+            }
+        }
+        target.record(status, nanos);
+    }
+
+    /**
+     * @return 핸들러 이름 -> 요약, 이름 순
+     */
+    public Map<String, Summary> snapshot() {
+        Map<String, Summary> result = new TreeMap<>();
+        stats.values().forEach(each -> result.put(each.name, each.summary()));
+        if (unmapped.histogram.snapshot().getCount() > 0) {
+            result.put(UNMAPPED, unmapped.summary());
+        }
+        return result;
+    }
+
+    /**
+     * 핸들러 요약, 시간은 마이크로초
+     */
+    public record Summary(
+            long count,
+            long p50,
+            long p90,
+            long p99,
+            long max,
+            Map<String, Long> status
+    ) {
+    }
+
+    private static String nameOf(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+    }
+
+    private static class Stats {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        /**
+         * 1xx ~ 5xx 응답 수
+         */
+        private final AtomicLongArray statusCounts = new AtomicLongArray(STATUS_CLASSES.length);
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void record(int status, long nanos) {
+            histogram.record(nanos);
+            int statusClass = status / 100 - 1;
+            if (statusClass >= 0 && statusClass < STATUS_CLASSES.length) {
+                statusCounts.incrementAndGet(statusClass);
+            }
+        }
+
+        Summary summary() {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            Map<String, Long> status = new TreeMap<>();
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                long count = statusCounts.get(i);
+                if (count > 0) {
+                    status.put(STATUS_CLASSES[i], count);
+                }
+            }
+            return new Summary(
+                    snapshot.getCount(),
+                    snapshot.percentile(50) / 1000,
+                    snapshot.percentile(90) / 1000,
+                    snapshot.percentile(99) / 1000,
+                    snapshot.getMax() / 1000,
+                    status
+            );
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package hello.springcoremvc26.web.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정 메모리 지연시간 히스토그램
+ * <p>
+ * HdrHistogram 처럼 값의 상위 SUB_BITS 비트로 칸을 나눈다(log-linear).
+ * 2 의 거듭제곱 구간마다 16 칸이 있으므로, 칸의 상한값과 실제 값의 차이는 최대 1/16(약 6%) 이다.
+ * 칸은 AtomicLongArray 하나이고, 기록은 칸 하나와 최대값의 원자적 갱신뿐이라 잠금도 할당도 없다.
+ * <p>
+ * 값은 나노초이고, MAX_VALUE(약 18 분) 를 넘는 값은 MAX_VALUE 로 기록된다.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private static final int MAX_BITS = 40;
+    public static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+    /**
+     * MAX_VALUE 의 칸 번호 + 1
+     */
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos 지연시간, 음수는 0 으로 기록한다.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 현재까지의 분포, 기록 중에 만들면 일부 기록은 빠질 수 있다.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, max.get());
+    }
+
+    /**
+     * 값이 들어갈 칸, 값의 최상위 비트 위치로 구간(shift)을, 그 아래 4 비트로 구간 안의 칸을 정한다.
+     */
+    static int indexOf(long value) {
+        if (value < 2 * HALF) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * HALF + (mantissa - HALF);
+    }
+
+    /**
+     * 칸에 들어가는 가장 큰 값
+     */
+    static long highestValueOf(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long mantissa = index % HALF + HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * 백분위 값, 해당 칸의 상한값이고 최대값을 넘지 않는다. 기록이 없으면 0
+         *
+         * @param percentile 0 ~ 100
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
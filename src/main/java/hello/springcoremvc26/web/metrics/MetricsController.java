@@ -0,0 +1,117 @@
+package hello.springcoremvc26.web.metrics;
+
+import hello.springcoremvc26.domain.login.LoginThrottle;
+import hello.springcoremvc26.domain.member.MemberCache;
+import hello.springcoremvc26.web.session.SessionManager;
+import hello.springcoremvc26.web.session.SessionReplicator;
+import hello.springcoremvc26.web.session.SessionStats;
+import hello.springcoremvc26.web.view.FragmentCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 내부 확인용 지표
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/metrics")
+public class MetricsController {
+    private final SessionManager sessionManager;
+    private final LoginThrottle loginThrottle;
+    private final SessionCreationMetrics sessionCreationMetrics;
+    private final FragmentCache fragmentCache;
+    private final MemberCache memberCache;
+    private final HandlerMetrics handlerMetrics;
+
+    /**
+     * SessionManager 세션 수, 생성/만료/제거 누적 횟수와 최근 1 분 횟수, 나이와 유휴 시간 분포
+     * <p>
+     * 모두 세션 계층이 미리 세어둔 값이라 세션 수와 상관없이 일정한 시간에 응답한다.
+     */
+    @GetMapping("/sessions")
+    public Map<String, Object> sessions() {
+        SessionStats.Snapshot stats = sessionManager.getStats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("active", stats.active());
+        result.put("created", sessionManager.getCreatedCount());
+        result.put("expired", sessionManager.getExpiredCount());
+        result.put("evicted", sessionManager.getEvictedCount());
+        result.put("createdPerMinute", stats.createdPerMinute());
+        result.put("expiredPerMinute", stats.expiredPerMinute());
+        result.put("evictedPerMinute", stats.evictedPerMinute());
+        result.put("age", stats.age());
+        result.put("idle", stats.idle());
+        return result;
+    }
+
+    /**
+     * 세션 복제 보낸/받은 배치와 변경 수, 바이트 수, 최근 1 분 변경 수, 반영 지연(밀리초)
+     * <p>
+     * 복제 중이 아니면 404
+     */
+    @GetMapping("/session-replication")
+    public ResponseEntity<SessionReplicator.Stats> sessionReplication() {
+        return ResponseEntity.of(sessionManager.getReplicationStats());
+    }
+
+    /**
+     * 로그인 시도 제한 허용/거절 횟수와 버킷 수
+     */
+    @GetMapping("/login-throttle")
+    public Map<String, Object> loginThrottle() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("allowed", loginThrottle.getAllowedCount());
+        result.put("rejectedByLoginId", loginThrottle.getLoginIdRejectedCount());
+        result.put("rejectedByClient", loginThrottle.getClientRejectedCount());
+        result.put("loginIdBuckets", loginThrottle.getLoginIdBucketCount());
+        result.put("clientBuckets", loginThrottle.getClientBucketCount());
+        result.put("evicted", loginThrottle.getEvictedCount());
+        return result;
+    }
+
+    /**
+     * 엔드포인트별 컨테이너 세션 생성 횟수
+     */
+    @GetMapping("/session-creation")
+    public Map<String, Long> sessionCreation() {
+        return sessionCreationMetrics.snapshot();
+    }
+
+    /**
+     * 렌더링된 HTML 조각 캐시 적중/실패 횟수
+     */
+    @GetMapping("/fragment-cache")
+    public Map<String, Object> fragmentCache() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", fragmentCache.getSize());
+        result.put("hit", fragmentCache.getHitCount());
+        result.put("miss", fragmentCache.getMissCount());
+        return result;
+    }
+
+    /**
+     * 로그인 회원 캐시 크기와 적중/실패 횟수
+     */
+    @GetMapping("/member-cache")
+    public Map<String, Object> memberCache() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", memberCache.getSize());
+        result.put("hit", memberCache.getHitCount());
+        result.put("miss", memberCache.getMissCount());
+        return result;
+    }
+
+    /**
+     * 컨트롤러 메서드별 처리 시간 백분위(마이크로초)와 응답 상태 수
+     */
+    @GetMapping("/handlers")
+    public Map<String, HandlerMetrics.Summary> handlers() {
+        return handlerMetrics.snapshot();
+    }
+}
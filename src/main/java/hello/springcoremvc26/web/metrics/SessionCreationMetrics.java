@@ -0,0 +1,40 @@
+package hello.springcoremvc26.web.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 컨테이너 세션(HttpSession) 생성 횟수
+ * <p>
+ * 키는 "메서드 핸들러 경로 패턴" 이므로 요청 URL 종류와 상관없이 핸들러 수만큼만 늘어난다.
+ */
+@Component
+public class SessionCreationMetrics {
+    /**
+     * 핸들러가 정해지지 않은 요청 (필터에서 응답했거나 정적 리소스)
+     */
+    public static final String UNMAPPED = "unmapped";
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public void increment(
+            String method,
+            String pattern
+    ) {
+        String endpoint = pattern != null ? method + " " + pattern : UNMAPPED;
+        counts.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return 엔드포인트 -> 생성 횟수, 이름 순
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((endpoint, count) -> result.put(endpoint, count.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package hello.springcoremvc26.web.session;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 해시 타이밍 휠
+ * <p>
+ * 만료 시각을 tick 단위로 나누어 원형 배열의 칸(bucket)에 넣어둔다.
+ * 한 tick 이 지날 때마다 해당 칸만 확인하므로, 전체 대상을 훑지 않는다.
+ * 예약은 어느 스레드에서나 가능하고, advance() 는 한 번에 한 스레드만 실행된다.
+ *
+ * @param <T> 만료 대상
+ */
+public class HashedTimingWheel<T> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Queue<Timeout<T>>[] buckets;
+
+    /**
+     * 처리가 끝난 마지막 tick
+     */
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(
+            long tickMillis,
+            int wheelSize,
+            long startMillis
+    ) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * 만료 예약
+     *
+     * @param target         만료 대상
+     * @param deadlineMillis 만료 시각
+     */
+    public void schedule(
+            T target,
+            long deadlineMillis
+    ) {
+        // 이미 지나간 tick 이면 다음 tick 에 처리한다.
+        long tick = Math.max(ceilTick(deadlineMillis), processedTick + 1);
+        buckets[(int) (tick & mask)].add(new Timeout<>(target, tick));
+    }
+
+    /**
+     * 현재 시각까지의 tick 을 처리한다.
+     *
+     * @param nowMillis 현재 시각
+     * @param expired   만료된 대상을 받을 콜백
+     * @return 만료된 대상 수
+     */
+    public synchronized int advance(
+            long nowMillis,
+            Consumer<T> expired
+    ) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+
+        // 한 바퀴 이상 밀렸으면 마지막 한 바퀴만 돌아도 모든 칸을 확인하게 된다.
+        long tick = Math.max(processedTick + 1, targetTick - mask);
+        int count = 0;
+        for (; tick <= targetTick; tick++) {
+            Iterator<Timeout<T>> it = buckets[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.tick() <= tick) {
+                    it.remove();
+                    expired.accept(timeout.target());
+                    count++;
+                }
+            }
+            processedTick = tick;
+        }
+        return count;
+    }
+
+    private long ceilTick(long deadlineMillis) {
+        long elapsed = deadlineMillis - startMillis;
+        return elapsed <= 0 ? 0 : (elapsed + tickMillis - 1) / tickMillis;
+    }
+
+    private record Timeout<T>(T target, long tick) {
+    }
+}
@@ -0,0 +1,64 @@
+package hello.springcoremvc26.web.session;
+
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 세션 저장소에 보관되는 세션 하나
+ */
+@Getter
+public class SessionEntry {
+    private static final VarHandle LAST_ACCESSED_TIME;
+
+    static {
+        try {
+            LAST_ACCESSED_TIME = MethodHandles.lookup()
+                    .findVarHandle(SessionEntry.class, "lastAccessedTime", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String sessionId;
+    private final Object value;
+    private final long creationTime;
+    private final long sequence;      // 생성 순서, 최대 세션 수 초과 시 제거 순서
+    private volatile long lastAccessedTime;
+
+    public SessionEntry(
+            String sessionId,
+            Object value,
+            long creationTime,
+            long sequence
+    ) {
+        this(sessionId, value, creationTime, sequence, creationTime);
+    }
+
+    public SessionEntry(
+            String sessionId,
+            Object value,
+            long creationTime,
+            long sequence,
+            long lastAccessedTime
+    ) {
+        this.sessionId = sessionId;
+        this.value = value;
+        this.creationTime = creationTime;
+        this.sequence = sequence;
+        this.lastAccessedTime = lastAccessedTime;
+    }
+
+    /**
+     * 마지막 접근 시각이 아직 previousAccess 일 때만 now 로 갱신
+     *
+     * @return 다른 스레드가 먼저 갱신했으면 false
+     */
+    public boolean touch(
+            long previousAccess,
+            long now
+    ) {
+        return LAST_ACCESSED_TIME.compareAndSet(this, previousAccess, now);
+    }
+}
@@ -1,38 +1,172 @@
 package hello.springcoremvc26.web.session;
 
+import hello.springcoremvc26.web.id.IdGenerator;
+import hello.springcoremvc26.web.id.SecureSessionIdGenerator;
+import hello.springcoremvc26.web.session.replication.ReplicationTransport;
+import hello.springcoremvc26.web.session.store.HeapSessionStore;
+import hello.springcoremvc26.web.session.store.SessionStore;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 세션 관리 매니저
+ * <p>
+ * 세션 값은 로그인 회원 ID 뿐이고(Member 는 MemberCache 로 다시 찾는다), 쿠키의 세션 ID 로 SessionStore 에서 찾는다.
+ * 저장소가 재시작 후에도 남아있으면 시작할 때 생성 순서와 만료 예약을 다시 만든다.
+ * <p>
+ * 세션은 유휴 시간(idleTimeout)이나 최대 수명(absoluteTimeout)이 지나면 만료되고,
+ * 최대 세션 수(maxSessions)를 넘으면 가장 먼저 생성된 세션부터 제거된다.
+ * 만료는 타이밍 휠이 tick 마다 해당 칸만 확인해서 처리하고, 세션 수와 나이, 유휴 시간 분포는 SessionStats 에 그때그때 반영하므로
+ * 요청 처리나 통계 조회 중에 전체 세션을 훑는 일은 없다.
+ * <p>
+ * ReplicationTransport 빈이 있으면 생성, 접근, 로그아웃을 SessionReplicator 로 다른 노드에 복제한다.
+ * 복제되는 것은 이 매니저의 세션뿐이다. 로그인(LoginController)은 서블릿 컨테이너의 HttpSession 을 쓰고
+ * 이 세션은 복제되지 않으므로, 여러 노드를 둘 때는 여전히 로드 밸런서의 고정 세션(sticky session)이 필요하다.
  */
+@Slf4j
 @Component
 public class SessionManager {
     public static final String SESSION_COOKIE_NAME = "mySessionId";
 
-    private final Map<String, Object> sessionStore = new ConcurrentHashMap<>();
+    private final SessionStore sessionStore;
+    private final IdGenerator idGenerator;
+
+    /**
+     * 생성 순서 -> 세션 ID, 최대 세션 수 초과 시 가장 오래된 세션을 찾는 용도
+     */
+    private final NavigableMap<Long, String> creationOrder = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final SessionProperties properties;
+    private final Clock clock;
+    private final HashedTimingWheel<SessionKey> expiryWheel;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final SessionStats stats;
+
+    /**
+     * null 이면 이 노드에서만 세션을 관리
+     */
+    private final SessionReplicator replicator;
+
+    public SessionManager() {
+        this(new SessionProperties(), new HeapSessionStore(), new SecureSessionIdGenerator());
+    }
+
+    @Autowired
+    public SessionManager(
+            SessionProperties properties,
+            SessionStore sessionStore,
+            @Qualifier("sessionIdGenerator") IdGenerator idGenerator,
+            Optional<ReplicationTransport> replicationTransport
+    ) {
+        this(properties, sessionStore, idGenerator, Clock.systemUTC(), true, replicationTransport.orElse(null));
+    }
+
+    /**
+     * @param startSweeper false 면 만료 스레드를 띄우지 않는다. 테스트에서 sweep() 을 직접 호출하는 용도
+     */
+    SessionManager(
+            SessionProperties properties,
+            SessionStore sessionStore,
+            IdGenerator idGenerator,
+            Clock clock,
+            boolean startSweeper
+    ) {
+        this(properties, sessionStore, idGenerator, clock, startSweeper, null);
+    }
+
+    /**
+     * @param replicationTransport null 이면 복제하지 않는다.
+     *                             startSweeper 가 false 면 복제 스레드도 띄우지 않으므로 flushReplication() 을 직접 호출한다.
+     */
+    SessionManager(
+            SessionProperties properties,
+            SessionStore sessionStore,
+            IdGenerator idGenerator,
+            Clock clock,
+            boolean startSweeper,
+            ReplicationTransport replicationTransport
+    ) {
+        this.properties = properties;
+        this.sessionStore = sessionStore;
+        this.idGenerator = idGenerator;
+        this.clock = clock;
+
+        long tickMillis = properties.getTick().toMillis();
+        this.expiryWheel = new HashedTimingWheel<>(tickMillis, properties.getWheelSize(), clock.millis());
+        this.stats = new SessionStats(properties, clock.millis());
+
+        // 저장소에 남아있던 세션의 생성 순서와 만료 예약을 복원
+        sessionStore.forEach(entry -> {
+            sequence.accumulateAndGet(entry.getSequence(), Math::max);
+            creationOrder.put(entry.getSequence(), entry.getSessionId());
+            expiryWheel.schedule(SessionKey.of(entry), deadlineOf(entry));
+            stats.restored(entry);
+        });
+
+        if (startSweeper) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.sweeper.scheduleAtFixedRate(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+
+        // 다른 노드의 배치는 구독하는 순간부터 들어오므로 마지막에 만든다.
+        this.replicator = replicationTransport == null ? null : new SessionReplicator(
+                this, replicationTransport, properties.getReplication(), clock, startSweeper
+        );
+    }
 
     /**
      * 세션 생성
      *
-     * @param value 저장할 값
-     * @param resp  HTTP Servlet Response
+     * @param memberId 로그인 회원 ID
+     * @param resp     HTTP Servlet Response
      */
     public void createSession(
-            Object value,
+            Long memberId,
             HttpServletResponse resp
     ) {
-        // 세션 ID를 생성하고, 값을 세션에 저장
-        String sessionId = UUID.randomUUID().toString();
-        sessionStore.put(sessionId, value);
+        // 최대 세션 수를 넘지 않도록 먼저 자리를 만든다.
+        evictIfFull();
+
+        // 세션 ID를 생성하고, 회원 ID를 세션에 저장
+        String sessionId = idGenerator.generateId();
+        SessionEntry entry = new SessionEntry(sessionId, memberId, clock.millis(), sequence.incrementAndGet());
+        sessionStore.put(entry);
+        creationOrder.put(entry.getSequence(), sessionId);
+        expiryWheel.schedule(SessionKey.of(entry), deadlineOf(entry));
+        createdCount.increment();
+        stats.created(entry, entry.getCreationTime());
+        if (replicator != null) {
+            replicator.created(entry);
+        }
 
         // 쿠키 생성
         Cookie mySessionCookie = new Cookie(SESSION_COOKIE_NAME, sessionId);
@@ -41,19 +175,26 @@ public class SessionManager {
 
     /**
      * 세션 조회
+     * <p>
+     * 만료 시각이 지난 세션은 타이밍 휠이 처리하기 전이라도 조회되지 않는다.
+     * 회원 ID 가 아닌 값(예전 형식으로 저장소에 남은 세션)은 로그인하지 않은 것으로 본다.
      *
      * @param req HTTP Servlet Request
-     * @return 조회된 세션에 대한 정보(값)
+     * @return 조회된 세션의 로그인 회원 ID
      */
-    public Optional<Object> getSession(
+    public Optional<Long> getSession(
             HttpServletRequest req
     ) {
         return findCookie(req, SESSION_COOKIE_NAME)
-                .map(value -> sessionStore.get(value.getValue()));
+                .map(cookie -> sessionStore.get(cookie.getValue()))
+                .filter(this::touchIfAlive)
+                .map(SessionEntry::getValue)
+                .filter(Long.class::isInstance)
+                .map(Long.class::cast);
     }
 
     /**
-     * 세션 만료
+     * 세션 만료, 복제 중이면 다른 노드의 세션도 만료시킨다.
      *
      * @param req HTTP Servlet Request
      */
@@ -61,7 +202,222 @@ public class SessionManager {
             HttpServletRequest req
     ) {
         findCookie(req, SESSION_COOKIE_NAME)
-                .ifPresent(cookie -> sessionStore.remove(cookie.getValue()));
+                .map(cookie -> sessionStore.get(cookie.getValue()))
+                .ifPresent(entry -> {
+                    expireEntry(entry);
+                    if (replicator != null) {
+                        replicator.expired(entry.getSessionId());
+                    }
+                });
+    }
+
+    /**
+     * 다른 노드에서 만든 세션 반영, 이미 있거나 만료 시각이 지났으면 무시한다.
+     * 생성 순서(sequence)는 이 노드에서 새로 발급한다.
+     */
+    void applyCreated(
+            String sessionId,
+            Long memberId,
+            long creationTime,
+            long lastAccessedTime
+    ) {
+        if (sessionStore.get(sessionId) != null) {
+            return;
+        }
+
+        SessionEntry entry = new SessionEntry(sessionId, memberId, creationTime, sequence.incrementAndGet(), lastAccessedTime);
+        if (deadlineOf(entry) <= clock.millis()) {
+            return;
+        }
+
+        evictIfFull();
+        sessionStore.put(entry);
+        creationOrder.put(entry.getSequence(), sessionId);
+        expiryWheel.schedule(SessionKey.of(entry), deadlineOf(entry));
+        stats.restored(entry);
+    }
+
+    /**
+     * 다른 노드에서의 접근 반영, 이 노드의 마지막 접근 시각보다 늦을 때만 갱신한다.
+     */
+    void applyTouched(
+            String sessionId,
+            long lastAccessedTime
+    ) {
+        SessionEntry entry = sessionStore.get(sessionId);
+        if (entry == null) {
+            return;
+        }
+
+        long previousAccess = entry.getLastAccessedTime();
+        if (lastAccessedTime > previousAccess && sessionStore.touch(entry, previousAccess, lastAccessedTime)) {
+            stats.touched(previousAccess, lastAccessedTime);
+        }
+    }
+
+    /**
+     * 다른 노드에서의 로그아웃 반영
+     */
+    void applyExpired(String sessionId) {
+        SessionEntry entry = sessionStore.get(sessionId);
+        if (entry != null) {
+            expireEntry(entry);
+        }
+    }
+
+    /**
+     * 모아둔 복제 변경 내용을 바로 보낸다. 테스트 용도
+     */
+    void flushReplication() {
+        if (replicator != null) {
+            replicator.flush();
+        }
+    }
+
+    /**
+     * 현재 시각까지 만료된 세션 정리, 만료 스레드가 tick 마다 호출한다.
+     */
+    void sweep() {
+        try {
+            expiryWheel.advance(clock.millis(), this::onDeadline);
+        } catch (RuntimeException e) {
+            // 예외가 밖으로 나가면 이후 스케줄이 취소되므로 여기서 끊는다.
+            log.error("SessionManager sweep error", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        if (replicator != null) {
+            replicator.close();
+        }
+    }
+
+    public int getActiveCount() {
+        return sessionStore.size();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * 세션 수, 최근 1 분 생성/만료/제거 수, 나이와 유휴 시간 분포
+     */
+    public SessionStats.Snapshot getStats() {
+        return stats.snapshot(getActiveCount(), clock.millis());
+    }
+
+    /**
+     * 복제 중이 아니면 empty
+     */
+    public Optional<SessionReplicator.Stats> getReplicationStats() {
+        return Optional.ofNullable(replicator).map(SessionReplicator::getStats);
+    }
+
+    /**
+     * 타이밍 휠에서 만료 시각이 된 세션 처리
+     * <p>
+     * 조회될 때마다 휠을 다시 예약하지 않고, 여기서 실제 만료 시각을 다시 계산해서 재예약한다.
+     */
+    private void onDeadline(SessionKey key) {
+        // 이미 제거된 세션
+        SessionEntry entry = sessionStore.get(key.sessionId());
+        if (entry == null || entry.getSequence() != key.sequence()) {
+            return;
+        }
+
+        long deadline = deadlineOf(entry);
+        if (deadline > clock.millis()) {
+            expiryWheel.schedule(key, deadline);
+            return;
+        }
+
+        expireEntry(entry);
+    }
+
+    /**
+     * 살아있는 세션이면 마지막 접근 시각을 갱신하고, 만료된 세션이면 제거한다.
+     */
+    private boolean touchIfAlive(SessionEntry entry) {
+        long now = clock.millis();
+        if (deadlineOf(entry) <= now) {
+            expireEntry(entry);
+            return false;
+        }
+
+        // 같은 세션에 동시에 들어온 요청은 갱신에 성공한 한 스레드만 통계와 복제에 반영한다.
+        // 이미 같거나 늦은 시각으로 갱신되어 있으면 할 일이 없다.
+        long previousAccess = entry.getLastAccessedTime();
+        if (now <= previousAccess || !sessionStore.touch(entry, previousAccess, now)) {
+            return true;
+        }
+        stats.touched(previousAccess, now);
+
+        // 만료는 tick 단위로 처리되므로, 같은 tick 안의 접근은 다시 보내지 않는다.
+        long tickMillis = properties.getTick().toMillis();
+        if (replicator != null && now / tickMillis != previousAccess / tickMillis) {
+            replicator.touched(entry.getSessionId(), now);
+        }
+        return true;
+    }
+
+    /**
+     * 최대 세션 수를 넘었으면 가장 오래 전에 생성된 세션부터 제거, 0 이하면 제한 없음
+     */
+    private void evictIfFull() {
+        int maxSessions = properties.getMaxSessions();
+        if (maxSessions <= 0) {
+            return;
+        }
+
+        while (sessionStore.size() >= maxSessions) {
+            Map.Entry<Long, String> oldest = creationOrder.pollFirstEntry();
+            if (oldest == null) {
+                return;
+            }
+
+            // 통계에서 빼려면 생성, 접근 시각이 필요하다.
+            SessionEntry entry = sessionStore.get(oldest.getValue());
+            if (entry != null && entry.getSequence() == oldest.getKey()
+                    && sessionStore.remove(oldest.getValue(), oldest.getKey())) {
+                evictedCount.increment();
+                stats.evicted(entry, clock.millis());
+            }
+        }
+    }
+
+    private void expireEntry(SessionEntry entry) {
+        if (remove(entry)) {
+            expiredCount.increment();
+            stats.expired(entry, clock.millis());
+        }
+    }
+
+    private boolean remove(SessionEntry entry) {
+        if (sessionStore.remove(entry.getSessionId(), entry.getSequence())) {
+            creationOrder.remove(entry.getSequence());
+            return true;
+        }
+        return false;
+    }
+
+    private long deadlineOf(SessionEntry entry) {
+        return Math.min(
+                entry.getCreationTime() + properties.getAbsoluteTimeout().toMillis(),
+                entry.getLastAccessedTime() + properties.getIdleTimeout().toMillis()
+        );
     }
 
     /**
@@ -83,4 +439,13 @@ public class SessionManager {
                 .filter(cookie -> cookie.getName().equals(cookieName))
                 .findAny();
     }
+
+    /**
+     * 타이밍 휠에는 세션 값 대신 ID 와 sequence 만 넣는다.
+     */
+    private record SessionKey(String sessionId, long sequence) {
+        static SessionKey of(SessionEntry entry) {
+            return new SessionKey(entry.getSessionId(), entry.getSequence());
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package hello.springcoremvc26.web.session;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * SessionManager 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.session")
+public class SessionProperties {
+    /**
+     * 마지막 접근 이후 이 시간이 지나면 만료
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    /**
+     * 생성 이후 이 시간이 지나면 접근 여부와 상관없이 만료
+     */
+    private Duration absoluteTimeout = Duration.ofHours(8);
+
+    /**
+     * 최대 세션 수, 넘으면 가장 오래된 세션부터 제거
+     */
+    private int maxSessions = 100_000;
+
+    /**
+     * 타이밍 휠의 한 칸 시간
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * 타이밍 휠의 칸 수, 2의 제곱수로 올림된다.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * 세션 저장소
+     */
+    private Store store = new Store();
+
+    /**
+     * 다른 노드로의 세션 복제, ReplicationTransport 빈이 있을 때만 사용한다.
+     */
+    private Replication replication = new Replication();
+
+    public enum StoreType {
+        HEAP,   // 힙 메모리, 재시작하면 사라짐
+        MAPPED  // 메모리 매핑 파일, 재시작 후에도 유지
+    }
+
+    @Getter
+    @Setter
+    public static class Store {
+        private StoreType type = StoreType.HEAP;
+
+        /**
+         * MAPPED 저장소 파일 경로
+         */
+        private String path = "data/sessions.dat";
+
+        /**
+         * MAPPED 저장소 파일 크기
+         */
+        private DataSize capacity = DataSize.ofMegabytes(64);
+    }
+
+    @Getter
+    @Setter
+    public static class Replication {
+        /**
+         * 이 노드의 ID, 비어 있으면 시작할 때 임의로 정한다.
+         */
+        private String nodeId = "";
+
+        /**
+         * 모아둔 변경 내용을 보내는 주기
+         */
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        /**
+         * 배치 하나에 담는 최대 변경 수
+         */
+        private int maxBatchSize = 1000;
+    }
+}
@@ -0,0 +1,405 @@
+package hello.springcoremvc26.web.session;
+
+import hello.springcoremvc26.web.metrics.LatencyHistogram;
+import hello.springcoremvc26.web.session.replication.ReplicationTransport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SessionManager 의 세션 생성, 접근, 로그아웃을 다른 노드에 복제한다.
+ * <p>
+ * 변경 내용(delta)은 세션 ID 별로 하나만 대기열에 두고 합친다.
+ * 생성 후 접근은 생성 하나로, 접근 여러 번은 마지막 접근 하나로 줄이고,
+ * 보내기 전에 생성과 로그아웃이 모두 일어났으면 둘 다 보내지 않는다.
+ * 대기열은 flushInterval 마다 maxBatchSize 개씩 배치로 묶어 ReplicationTransport 로 보낸다.
+ * <p>
+ * 유휴, 최대 수명 만료와 최대 세션 수 초과 제거는 노드마다 같은 시각으로 각자 처리하므로 복제하지 않는다.
+ * 새로 합류한 노드에 기존 세션을 옮기는 전체 동기화는 하지 않는다.
+ * <p>
+ * 배치 구조
+ * <pre>
+ * header : version(int) | nodeId(UTF) | batchSequence(long) | oldestQueuedMillis(long) | count(int)
+ * delta  : type(byte) | sessionId(UTF)
+ *          | CREATE: memberId(long) | creationTime(long) | lastAccessedTime(long)
+ *          | TOUCH : lastAccessedTime(long)
+ *          | EXPIRE: -
+ * </pre>
+ */
+@Slf4j
+public class SessionReplicator {
+    private static final int FORMAT_VERSION = 1;
+    private static final byte CREATE = 1;
+    private static final byte TOUCH = 2;
+    private static final byte EXPIRE = 3;
+
+    private static final long RATE_RESOLUTION = 1000;
+    private static final int RATE_SLOTS = 64;
+    private static final long RATE_WINDOW = Duration.ofMinutes(1).toMillis();
+
+    private final SessionManager sessionManager;
+    private final ReplicationTransport transport;
+    private final Clock clock;
+    private final String nodeId;
+    private final int maxBatchSize;
+
+    /**
+     * 세션 ID -> 아직 보내지 않은 변경 내용
+     */
+    private final Map<String, Delta> pending = new ConcurrentHashMap<>();
+    private final AtomicLong batchSequence = new AtomicLong();
+
+    /**
+     * 보낸 노드 -> 마지막으로 받은 batchSequence, 빠진 배치를 세는 용도
+     */
+    private final Map<String, Long> receivedSequences = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder queuedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder sentBatchCount = new LongAdder();
+    private final LongAdder sentDeltaCount = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBatchCount = new LongAdder();
+    private final LongAdder appliedDeltaCount = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder missedBatchCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final TimeBucketCounter sentRate;
+    private final TimeBucketCounter appliedRate;
+
+    /**
+     * 변경이 대기열에 들어간 뒤 다른 노드에 반영될 때까지 걸린 시간, 배치에서 가장 오래 기다린 변경 기준
+     */
+    private final LatencyHistogram lag = new LatencyHistogram();
+
+    /**
+     * @param startFlusher false 면 보내는 스레드를 띄우지 않는다. 테스트에서 flush() 를 직접 호출하는 용도
+     */
+    SessionReplicator(
+            SessionManager sessionManager,
+            ReplicationTransport transport,
+            SessionProperties.Replication properties,
+            Clock clock,
+            boolean startFlusher
+    ) {
+        this.sessionManager = sessionManager;
+        this.transport = transport;
+        this.clock = clock;
+        this.nodeId = properties.getNodeId().isEmpty()
+                ? UUID.randomUUID().toString()
+                : properties.getNodeId();
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+
+        long start = clock.millis() - RATE_WINDOW;
+        this.sentRate = new TimeBucketCounter(start, RATE_RESOLUTION, RATE_SLOTS);
+        this.appliedRate = new TimeBucketCounter(start, RATE_RESOLUTION, RATE_SLOTS);
+
+        transport.subscribe(this::receive);
+
+        if (startFlusher) {
+            long intervalMillis = Math.max(1, properties.getFlushInterval().toMillis());
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-replicator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    void created(SessionEntry entry) {
+        if (entry.getValue() instanceof Long memberId) {
+            enqueue(new Delta(CREATE, entry.getSessionId(), memberId,
+                    entry.getCreationTime(), entry.getLastAccessedTime(), clock.millis()));
+        }
+    }
+
+    void touched(String sessionId, long lastAccessedTime) {
+        enqueue(new Delta(TOUCH, sessionId, 0, 0, lastAccessedTime, clock.millis()));
+    }
+
+    void expired(String sessionId) {
+        enqueue(new Delta(EXPIRE, sessionId, 0, 0, 0, clock.millis()));
+    }
+
+    /**
+     * 대기 중인 변경 내용을 배치로 나누어 보낸다.
+     * <p>
+     * 보내는 동안 계속 들어오는 변경 때문에 끝나지 않는 일이 없도록, 시작할 때의 대기열 크기만큼만 보낸다.
+     */
+    synchronized void flush() {
+        int batches = pending.size() / maxBatchSize + 1;
+        for (int i = 0; i < batches && !pending.isEmpty(); i++) {
+            List<Delta> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+            Iterator<String> it = pending.keySet().iterator();
+            while (it.hasNext() && batch.size() < maxBatchSize) {
+                Delta delta = pending.remove(it.next());
+                if (delta != null) {
+                    batch.add(delta);
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        }
+    }
+
+    /**
+     * 남은 변경 내용을 보내고 전송 계층을 닫는다.
+     */
+    void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flushQuietly();
+        transport.close();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Stats getStats() {
+        long now = clock.millis();
+        LatencyHistogram.Snapshot lagSnapshot = lag.snapshot();
+        return new Stats(
+                nodeId,
+                pending.size(),
+                queuedCount.sum(),
+                coalescedCount.sum(),
+                sentBatchCount.sum(),
+                sentDeltaCount.sum(),
+                sentBytes.sum(),
+                sentRate.sum(now, RATE_WINDOW),
+                receivedBatchCount.sum(),
+                appliedDeltaCount.sum(),
+                receivedBytes.sum(),
+                appliedRate.sum(now, RATE_WINDOW),
+                missedBatchCount.sum(),
+                failureCount.sum(),
+                toMillis(lagSnapshot.percentile(50)),
+                toMillis(lagSnapshot.percentile(99)),
+                toMillis(lagSnapshot.getMax())
+        );
+    }
+
+    /**
+     * 세션 복제 지표
+     *
+     * @param pending          아직 보내지 않은 세션 수
+     * @param queued           대기열에 넣은 변경 수
+     * @param coalesced        대기 중인 변경과 합쳐져서 따로 보내지 않은 변경 수
+     * @param sentPerMinute    최근 1 분 동안 보낸 변경 수
+     * @param appliedPerMinute 최근 1 분 동안 다른 노드에서 받아 반영한 변경 수
+     * @param missedBatches    보낸 쪽 batchSequence 가 건너뛴 배치 수
+     * @param failures         보내기, 받기 실패 수
+     * @param lagP50Millis     반영 지연 중앙값
+     */
+    public record Stats(
+            String nodeId,
+            int pending,
+            long queued,
+            long coalesced,
+            long sentBatches,
+            long sentDeltas,
+            long sentBytes,
+            long sentPerMinute,
+            long receivedBatches,
+            long appliedDeltas,
+            long receivedBytes,
+            long appliedPerMinute,
+            long missedBatches,
+            long failures,
+            long lagP50Millis,
+            long lagP99Millis,
+            long lagMaxMillis
+    ) {
+    }
+
+    private void enqueue(Delta delta) {
+        queuedCount.increment();
+        pending.compute(delta.sessionId(), (sessionId, previous) -> {
+            if (previous == null) {
+                return delta;
+            }
+            coalescedCount.increment();
+            return merge(previous, delta);
+        });
+    }
+
+    /**
+     * 같은 세션의 대기 중인 변경(previous)과 새 변경(next)을 합친다. null 이면 둘 다 보내지 않는다.
+     * <p>
+     * 보내기에 실패해서 다시 넣는 경우 next 가 더 오래된 변경일 수 있으므로, 접근 시각은 큰 쪽을 쓴다.
+     */
+    private static Delta merge(Delta previous, Delta next) {
+        long queuedMillis = Math.min(previous.queuedMillis(), next.queuedMillis());
+        if (previous.type() == EXPIRE || next.type() == EXPIRE) {
+            // 다른 노드가 아직 모르는 세션이면 만료도 알릴 필요가 없다.
+            if (previous.type() == CREATE || next.type() == CREATE) {
+                return null;
+            }
+            return new Delta(EXPIRE, next.sessionId(), 0, 0, 0, queuedMillis);
+        }
+
+        long lastAccessedTime = Math.max(previous.lastAccessedTime(), next.lastAccessedTime());
+        Delta base = previous.type() == CREATE ? previous : next;
+        return new Delta(base.type(), base.sessionId(), base.memberId(),
+                base.creationTime(), lastAccessedTime, queuedMillis);
+    }
+
+    private void send(List<Delta> batch) {
+        long oldestQueued = Long.MAX_VALUE;
+        for (Delta delta : batch) {
+            oldestQueued = Math.min(oldestQueued, delta.queuedMillis());
+        }
+
+        try {
+            // 보내기에 성공했을 때만 번호를 쓴다. 실패한 배치에 번호를 쓰면 받는 쪽이 빠진 배치로 센다.
+            // flush() 가 synchronized 라서 보내는 스레드는 하나뿐이다.
+            long sequence = batchSequence.get() + 1;
+            byte[] payload = encode(sequence, oldestQueued, batch);
+            transport.publish(payload);
+            batchSequence.set(sequence);
+            sentBatchCount.increment();
+            sentDeltaCount.add(batch.size());
+            sentBytes.add(payload.length);
+            sentRate.add(clock.millis(), batch.size());
+        } catch (RuntimeException e) {
+            // 다음 flush 때 다시 보낸다. 그 사이 들어온 변경과는 합쳐진다.
+            failureCount.increment();
+            log.warn("SessionReplicator send failed, {} deltas requeued", batch.size(), e);
+            for (Delta delta : batch) {
+                pending.merge(delta.sessionId(), delta, SessionReplicator::merge);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // 예외가 밖으로 나가면 이후 스케줄이 취소되므로 여기서 끊는다.
+            log.error("SessionReplicator flush error", e);
+        }
+    }
+
+    /**
+     * 다른 노드가 보낸 배치 반영, 전송 계층의 스레드에서 호출된다.
+     */
+    private void receive(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("지원하지 않는 복제 배치 버전: " + version);
+            }
+
+            String origin = in.readUTF();
+            if (origin.equals(nodeId)) {
+                return;
+            }
+            long sequence = in.readLong();
+            Long previous = receivedSequences.put(origin, sequence);
+            if (previous != null && sequence > previous + 1) {
+                missedBatchCount.add(sequence - previous - 1);
+            }
+
+            long oldestQueued = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                apply(in);
+            }
+
+            long now = clock.millis();
+            receivedBatchCount.increment();
+            receivedBytes.add(payload.length);
+            appliedDeltaCount.add(count);
+            appliedRate.add(now, count);
+            lag.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - oldestQueued)));
+        } catch (IOException | RuntimeException e) {
+            failureCount.increment();
+            log.warn("SessionReplicator receive failed", e);
+        }
+    }
+
+    private void apply(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        String sessionId = in.readUTF();
+        switch (type) {
+            case CREATE -> sessionManager.applyCreated(sessionId, in.readLong(), in.readLong(), in.readLong());
+            case TOUCH -> sessionManager.applyTouched(sessionId, in.readLong());
+            case EXPIRE -> sessionManager.applyExpired(sessionId);
+            default -> throw new IllegalStateException("알 수 없는 복제 변경 타입: " + type);
+        }
+    }
+
+    private byte[] encode(
+            long sequence,
+            long oldestQueued,
+            List<Delta> batch
+    ) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + batch.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(nodeId);
+            out.writeLong(sequence);
+            out.writeLong(oldestQueued);
+            out.writeInt(batch.size());
+            for (Delta delta : batch) {
+                out.writeByte(delta.type());
+                out.writeUTF(delta.sessionId());
+                switch (delta.type()) {
+                    case CREATE -> {
+                        out.writeLong(delta.memberId());
+                        out.writeLong(delta.creationTime());
+                        out.writeLong(delta.lastAccessedTime());
+                    }
+                    case TOUCH -> out.writeLong(delta.lastAccessedTime());
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * @param queuedMillis 처음 대기열에 들어간 시각, 합쳐져도 가장 이른 값을 유지한다.
+     */
+    private record Delta(
+            byte type,
+            String sessionId,
+            long memberId,
+            long creationTime,
+            long lastAccessedTime,
+            long queuedMillis
+    ) {
+    }
+}
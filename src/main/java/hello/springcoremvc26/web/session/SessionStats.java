@@ -0,0 +1,179 @@
+package hello.springcoremvc26.web.session;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 세션 통계, SessionManager 가 세션을 만들고, 조회하고, 제거할 때마다 조금씩 갱신한다.
+ * <p>
+ * 생성, 만료, 제거는 1 초 칸의 최근 1 분 합계로 비율을 낸다.
+ * 세션 나이와 유휴 시간 분포는 개별 세션을 훑지 않고, 생성 시각과 마지막 접근 시각을 칸으로 나누어 센 값으로 낸다.
+ * 접근 시각은 칸이 바뀔 때만 이전 칸에서 빼고 새 칸에 더하므로, 대부분의 조회는 통계를 건드리지 않는다.
+ * <p>
+ * 읽기는 칸 수에만 비례하고 세션 수와는 상관이 없다.
+ */
+public class SessionStats {
+    private static final long RATE_RESOLUTION = 1000;
+    private static final int RATE_SLOTS = 64;
+    private static final long RATE_WINDOW = Duration.ofMinutes(1).toMillis();
+    private static final int DISTRIBUTION_SLOTS = 512;
+
+    private static final long[] AGE_BOUNDS = {
+            Duration.ofMinutes(1).toMillis(),
+            Duration.ofMinutes(5).toMillis(),
+            Duration.ofMinutes(15).toMillis(),
+            Duration.ofMinutes(30).toMillis(),
+            Duration.ofHours(1).toMillis(),
+            Duration.ofHours(2).toMillis(),
+            Duration.ofHours(4).toMillis(),
+            Duration.ofHours(8).toMillis()
+    };
+    private static final long[] IDLE_BOUNDS = {
+            Duration.ofSeconds(10).toMillis(),
+            Duration.ofMinutes(1).toMillis(),
+            Duration.ofMinutes(5).toMillis(),
+            Duration.ofMinutes(10).toMillis(),
+            Duration.ofMinutes(30).toMillis()
+    };
+
+    private final TimeBucketCounter created;
+    private final TimeBucketCounter expired;
+    private final TimeBucketCounter evicted;
+
+    /**
+     * 생성 시각별 살아있는 세션 수
+     */
+    private final TimeBucketCounter ages;
+
+    /**
+     * 마지막 접근 시각별 살아있는 세션 수
+     */
+    private final TimeBucketCounter idles;
+
+    /**
+     * @param properties 최대 수명, 유휴 시간만큼의 칸을 유지한다.
+     * @param nowMillis  현재 시각, 이보다 최대 수명만큼 이전에 만든 세션부터 셀 수 있다.
+     */
+    public SessionStats(
+            SessionProperties properties,
+            long nowMillis
+    ) {
+        long start = nowMillis - RATE_WINDOW;
+        this.created = new TimeBucketCounter(start, RATE_RESOLUTION, RATE_SLOTS);
+        this.expired = new TimeBucketCounter(start, RATE_RESOLUTION, RATE_SLOTS);
+        this.evicted = new TimeBucketCounter(start, RATE_RESOLUTION, RATE_SLOTS);
+        this.ages = distribution(properties.getAbsoluteTimeout(), nowMillis);
+        this.idles = distribution(properties.getIdleTimeout(), nowMillis);
+    }
+
+    /**
+     * 새로 만든 세션
+     */
+    void created(SessionEntry entry, long nowMillis) {
+        created.add(nowMillis, 1);
+        restored(entry);
+    }
+
+    /**
+     * 재시작 후 저장소에서 복원한 세션, 생성 비율에는 넣지 않는다.
+     */
+    void restored(SessionEntry entry) {
+        ages.add(entry.getCreationTime(), 1);
+        idles.add(entry.getLastAccessedTime(), 1);
+    }
+
+    /**
+     * 세션 조회로 마지막 접근 시각이 바뀐 경우
+     */
+    void touched(long previousAccessMillis, long nowMillis) {
+        if (idles.sameBucket(previousAccessMillis, nowMillis)) {
+            return;
+        }
+        idles.add(previousAccessMillis, -1);
+        idles.add(nowMillis, 1);
+    }
+
+    /**
+     * 만료(유휴, 최대 수명, 로그아웃)된 세션
+     */
+    void expired(SessionEntry entry, long nowMillis) {
+        expired.add(nowMillis, 1);
+        removed(entry);
+    }
+
+    /**
+     * 최대 세션 수를 넘어서 제거된 세션
+     */
+    void evicted(SessionEntry entry, long nowMillis) {
+        evicted.add(nowMillis, 1);
+        removed(entry);
+    }
+
+    /**
+     * 현재 통계
+     *
+     * @param active    현재 세션 수
+     * @param nowMillis 현재 시각
+     */
+    public Snapshot snapshot(int active, long nowMillis) {
+        return new Snapshot(
+                active,
+                created.sum(nowMillis, RATE_WINDOW),
+                expired.sum(nowMillis, RATE_WINDOW),
+                evicted.sum(nowMillis, RATE_WINDOW),
+                labeled(ages.distribution(nowMillis, AGE_BOUNDS), AGE_BOUNDS),
+                labeled(idles.distribution(nowMillis, IDLE_BOUNDS), IDLE_BOUNDS)
+        );
+    }
+
+    /**
+     * @param active            현재 세션 수
+     * @param createdPerMinute  최근 1 분 동안 생성된 세션 수
+     * @param expiredPerMinute  최근 1 분 동안 만료된 세션 수
+     * @param evictedPerMinute  최근 1 분 동안 최대 세션 수 초과로 제거된 세션 수
+     * @param age               생성 후 경과 시간 분포, "<5m" 는 1 분 이상 5 분 미만
+     * @param idle              마지막 접근 후 경과 시간 분포
+     */
+    public record Snapshot(
+            int active,
+            long createdPerMinute,
+            long expiredPerMinute,
+            long evictedPerMinute,
+            Map<String, Long> age,
+            Map<String, Long> idle
+    ) {
+    }
+
+    private void removed(SessionEntry entry) {
+        ages.add(entry.getCreationTime(), -1);
+        idles.add(entry.getLastAccessedTime(), -1);
+    }
+
+    /**
+     * 유지 기간을 DISTRIBUTION_SLOTS 칸으로 나눈다. 칸은 최소 1 초
+     */
+    private static TimeBucketCounter distribution(Duration span, long nowMillis) {
+        long resolution = Math.max(1000, span.toMillis() / (DISTRIBUTION_SLOTS - 2));
+        return new TimeBucketCounter(nowMillis - span.toMillis(), resolution, DISTRIBUTION_SLOTS);
+    }
+
+    private static Map<String, Long> labeled(long[] counts, long[] bounds) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < bounds.length; i++) {
+            result.put("<" + label(bounds[i]), counts[i]);
+        }
+        result.put(">=" + label(bounds[bounds.length - 1]), counts[bounds.length]);
+        return result;
+    }
+
+    private static String label(long millis) {
+        if (millis % Duration.ofHours(1).toMillis() == 0) {
+            return Duration.ofMillis(millis).toHours() + "h";
+        }
+        if (millis % Duration.ofMinutes(1).toMillis() == 0) {
+            return Duration.ofMillis(millis).toMinutes() + "m";
+        }
+        return Duration.ofMillis(millis).toSeconds() + "s";
+    }
+}
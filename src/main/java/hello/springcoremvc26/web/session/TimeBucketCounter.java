@@ -0,0 +1,133 @@
+package hello.springcoremvc26.web.session;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 시각별 개수를 고정 크기 원형 배열에 나누어 세는 카운터
+ * <p>
+ * 시각을 resolution 단위 칸(bucket)으로 나누고, 최근 slots 개 칸만 유지한다.
+ * 한 칸은 (칸 번호 32 비트 | 개수 32 비트) 를 하나의 long 에 담아 CAS 로 갱신하므로,
+ * 오래된 칸을 새 칸으로 재사용하면서 개수를 0 부터 다시 세는 것도 원자적이다.
+ * <p>
+ * 여러 스레드가 같은 칸을 갱신하면 경합이 생기므로, 스레드별로 나눈 stripe 에 기록하고 읽을 때 합친다.
+ * 감소는 증가한 stripe 와 달라도 되고, 합계는 모든 stripe 를 더한 값이다.
+ * 읽기는 stripe 수 x slots 만큼만 훑으므로 기록된 대상 수와 상관이 없다.
+ */
+class TimeBucketCounter {
+    private static final int STRIPES = stripes();
+
+    private final long startMillis;
+    private final long resolutionMillis;
+    private final int slots;
+    private final AtomicLongArray cells;
+
+    TimeBucketCounter(
+            long startMillis,
+            long resolutionMillis,
+            int slots
+    ) {
+        if (resolutionMillis <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("resolution and slots must be positive");
+        }
+        this.startMillis = startMillis;
+        this.resolutionMillis = resolutionMillis;
+        this.slots = slots;
+        this.cells = new AtomicLongArray(STRIPES * slots);
+    }
+
+    /**
+     * timeMillis 가 속한 칸에 delta 를 더한다. 이미 재사용되어 사라진 칸이면 무시한다.
+     */
+    void add(long timeMillis, int delta) {
+        long bucket = bucketOf(timeMillis);
+        if (bucket < 0) {
+            return;
+        }
+
+        int index = stripe() * slots + (int) (bucket % slots);
+        while (true) {
+            long cell = cells.get(index);
+            long cellBucket = cell >>> 32;
+            long updated;
+            if (cellBucket == bucket) {
+                updated = (bucket << 32) | ((int) cell + delta) & 0xFFFFFFFFL;
+            } else if (cellBucket < bucket) {
+                // 이전 바퀴의 칸, 새 칸으로 시작한다.
+                updated = (bucket << 32) | delta & 0xFFFFFFFFL;
+            } else {
+                return;
+            }
+            if (cells.compareAndSet(index, cell, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 두 시각이 같은 칸인지, 같은 칸이면 옮길 필요가 없다.
+     */
+    boolean sameBucket(long timeMillis, long otherMillis) {
+        return bucketOf(timeMillis) == bucketOf(otherMillis);
+    }
+
+    /**
+     * nowMillis 를 포함해서 최근 spanMillis 동안의 합
+     */
+    long sum(long nowMillis, long spanMillis) {
+        long now = bucketOf(nowMillis);
+        long from = now - Math.min(slots, spanMillis / resolutionMillis) + 1;
+        long total = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            long cell = cells.get(i);
+            long cellBucket = cell >>> 32;
+            if (cellBucket >= from && cellBucket <= now) {
+                total += (int) cell;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 유지 중인 칸의 개수를 nowMillis 기준 경과 시간에 따라 나누어 더한다.
+     *
+     * @param bounds 경과 시간 상한(ms), 오름차순. 결과의 마지막 칸은 마지막 상한 이상
+     * @return bounds.length + 1 개의 합계
+     */
+    long[] distribution(long nowMillis, long[] bounds) {
+        long now = bucketOf(nowMillis);
+        long[] result = new long[bounds.length + 1];
+        for (int i = 0; i < cells.length(); i++) {
+            long cell = cells.get(i);
+            long cellBucket = cell >>> 32;
+            int count = (int) cell;
+            if (count == 0 || cellBucket > now || cellBucket <= now - slots) {
+                continue;
+            }
+
+            // 칸 안의 가장 오래된 시각 기준
+            long elapsed = nowMillis - (startMillis + cellBucket * resolutionMillis);
+            int bound = 0;
+            while (bound < bounds.length && elapsed >= bounds[bound]) {
+                bound++;
+            }
+            result[bound] += count;
+        }
+        return result;
+    }
+
+    private long bucketOf(long timeMillis) {
+        return Math.floorDiv(timeMillis - startMillis, resolutionMillis);
+    }
+
+    private static int stripe() {
+        return (int) (Thread.currentThread().getId() & (STRIPES - 1));
+    }
+
+    /**
+     * CPU 수 이상의 2 의 제곱수, 최대 16
+     */
+    private static int stripes() {
+        int cpus = Math.min(16, Runtime.getRuntime().availableProcessors());
+        return Integer.highestOneBit(Math.max(1, cpus - 1)) << 1;
+    }
+}
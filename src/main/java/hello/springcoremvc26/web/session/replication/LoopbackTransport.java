@@ -0,0 +1,82 @@
+package hello.springcoremvc26.web.session.replication;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 한 JVM 안에서 노드 여러 개를 흉내 내는 전송 계층
+ * <p>
+ * 같은 그룹(join 으로 만든 전송)끼리만 배치를 주고받는다.
+ * 받는 쪽마다 전달 스레드가 하나씩 있어서, 보낸 쪽은 기다리지 않고 받는 쪽은 보낸 순서대로 처리한다.
+ * 여러 노드의 동작을 하나의 테스트 안에서 확인하는 용도
+ */
+@Slf4j
+public class LoopbackTransport implements ReplicationTransport {
+    private final Set<LoopbackTransport> group;
+    private final ExecutorService delivery;
+    private volatile Consumer<byte[]> receiver;
+
+    public LoopbackTransport() {
+        this(new CopyOnWriteArraySet<>());
+    }
+
+    private LoopbackTransport(Set<LoopbackTransport> group) {
+        this.group = group;
+        this.delivery = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loopback-transport");
+            thread.setDaemon(true);
+            return thread;
+        });
+        group.add(this);
+    }
+
+    /**
+     * 같은 그룹에 새 노드의 전송 계층을 연결
+     */
+    public LoopbackTransport join() {
+        return new LoopbackTransport(group);
+    }
+
+    @Override
+    public void publish(byte[] batch) {
+        for (LoopbackTransport node : group) {
+            if (node != this) {
+                node.deliver(batch);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * 그룹에서 빠진다. 이미 받아둔 배치는 버린다.
+     */
+    @Override
+    public void close() {
+        group.remove(this);
+        delivery.shutdownNow();
+    }
+
+    private void deliver(byte[] batch) {
+        try {
+            delivery.execute(() -> {
+                Consumer<byte[]> current = receiver;
+                if (current != null) {
+                    current.accept(batch);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // close() 와 동시에 보낸 경우
+            log.debug("LoopbackTransport closed, batch dropped");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package hello.springcoremvc26.web.session.replication;
+
+import java.util.function.Consumer;
+
+/**
+ * 세션 복제 배치를 노드 사이에 전달하는 전송 계층
+ * <p>
+ * 배치는 SessionReplicator 가 만든 바이트 배열이고, 전송 계층은 내용을 해석하지 않는다.
+ * 한 노드가 보낸 배치는 받는 쪽에서 보낸 순서대로 전달되어야 한다.
+ * 구현체는 SessionManager 가 쓸 수 있도록 빈으로 등록한다.
+ */
+public interface ReplicationTransport {
+    /**
+     * 자신을 제외한 다른 모든 노드에 전송
+     * <p>
+     * 복제 스레드에서 호출되며, 전달이 끝날 때까지 기다리지 않아도 된다.
+     *
+     * @throws RuntimeException 보내지 못한 경우, 배치의 변경 내용은 다음 배치로 다시 보낸다.
+     */
+    void publish(byte[] batch);
+
+    /**
+     * 다른 노드가 보낸 배치를 받을 콜백 등록, 노드마다 한 번만 호출한다.
+     */
+    void subscribe(Consumer<byte[]> receiver);
+
+    default void close() {
+    }
+}
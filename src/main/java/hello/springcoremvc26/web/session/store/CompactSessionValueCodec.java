@@ -0,0 +1,80 @@
+package hello.springcoremvc26.web.session.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 자주 쓰는 타입은 1 바이트 태그 + 값으로 짧게 저장하고,
+ * 나머지 Serializable 객체는 자바 직렬화를 사용한다.
+ */
+public class CompactSessionValueCodec implements SessionValueCodec {
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte STRING = 3;
+    private static final byte SERIALIZED = 9;
+
+    @Override
+    public byte[] encode(Object value) {
+        if (value == null) {
+            return new byte[]{NULL};
+        }
+        if (value instanceof Long l) {
+            return ByteBuffer.allocate(1 + Long.BYTES).put(LONG).putLong(l).array();
+        }
+        if (value instanceof Integer i) {
+            return ByteBuffer.allocate(1 + Integer.BYTES).put(INTEGER).putInt(i).array();
+        }
+        if (value instanceof String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(1 + bytes.length).put(STRING).put(bytes).array();
+        }
+        if (value instanceof Serializable) {
+            return serialize(value);
+        }
+
+        throw new IllegalArgumentException("세션 값은 Serializable 이어야 합니다. type = " + value.getClass().getName());
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte tag = buffer.get();
+        return switch (tag) {
+            case NULL -> null;
+            case LONG -> buffer.getLong();
+            case INTEGER -> buffer.getInt();
+            case STRING -> new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case SERIALIZED -> deserialize(bytes);
+            default -> throw new IllegalArgumentException("알 수 없는 세션 값 태그: " + tag);
+        };
+    }
+
+    private byte[] serialize(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(SERIALIZED);
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return ois.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package hello.springcoremvc26.web.session.store;
+
+import hello.springcoremvc26.web.session.SessionEntry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 힙 메모리 세션 저장소, 재시작하면 사라진다.
+ */
+public class HeapSessionStore implements SessionStore {
+    private final Map<String, SessionEntry> store = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(SessionEntry entry) {
+        store.put(entry.getSessionId(), entry);
+    }
+
+    @Override
+    public SessionEntry get(String sessionId) {
+        return store.get(sessionId);
+    }
+
+    @Override
+    public boolean touch(SessionEntry entry, long previousAccess, long now) {
+        return entry.touch(previousAccess, now);
+    }
+
+    @Override
+    public boolean remove(String sessionId, long sequence) {
+        SessionEntry entry = store.get(sessionId);
+        return entry != null
+                && entry.getSequence() == sequence
+                && store.remove(sessionId, entry);
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public void forEach(Consumer<SessionEntry> action) {
+        store.values().forEach(action);
+    }
+}
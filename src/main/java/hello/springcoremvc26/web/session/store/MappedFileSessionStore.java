@@ -0,0 +1,313 @@
+package hello.springcoremvc26.web.session.store;
+
+import hello.springcoremvc26.web.session.SessionEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 메모리 매핑 파일 세션 저장소
+ * <p>
+ * 세션 값은 직렬화되어 매핑된 파일 영역(힙 밖)에 저장되고, 힙에는 세션 ID -> 파일 위치 인덱스만 남는다.
+ * 파일에 그대로 남아 있으므로 재시작 후에도 파일을 한 번 훑어서 인덱스만 다시 만들면 된다.
+ * <p>
+ * 파일 구조
+ * <pre>
+ * header : magic(int) | version(int) | writePosition(long)
+ * record : creationTime(long) | lastAccessedTime(long) | sequence(long)
+ *          | recordLength(int) | status(int) | idLength(int) | valueLength(int)
+ *          | id | value | padding (8 바이트 정렬)
+ * </pre>
+ * 레코드는 뒤에 이어 붙이고, 제거는 status 만 바꾼다. 공간이 모자라면 살아있는 레코드를 앞으로 모은다.
+ */
+@Slf4j
+public class MappedFileSessionStore implements SessionStore {
+    private static final int MAGIC = 0x53455353; // "SESS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int WRITE_POSITION_OFFSET = 8;
+
+    private static final int CREATION_TIME = 0;
+    private static final int LAST_ACCESSED_TIME = 8;
+    private static final int SEQUENCE = 16;
+    private static final int RECORD_LENGTH = 24;
+    private static final int STATUS = 28;
+    private static final int ID_LENGTH = 32;
+    private static final int VALUE_LENGTH = 36;
+    private static final int RECORD_HEADER_SIZE = 40;
+
+    private static final int LIVE = 1;
+    private static final int REMOVED = 2;
+
+    /**
+     * 여러 스레드가 갱신하는 필드는 원자적으로 읽고 쓴다. 레코드가 8 바이트 정렬되어 있어야 한다.
+     */
+    private static final VarHandle LONG_HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_HANDLE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final SessionValueCodec codec;
+
+    /**
+     * 세션 ID -> 레코드 시작 위치
+     */
+    private final Map<String, Integer> index = new ConcurrentHashMap<>();
+
+    /**
+     * 읽기, 접근 시각 갱신, 제거는 read lock 으로 동시에 처리하고,
+     * 레코드 추가와 압축(위치 이동)만 write lock 으로 막는다.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int writePosition;
+
+    public MappedFileSessionStore(
+            Path path,
+            int capacity,
+            SessionValueCodec codec
+    ) {
+        this.codec = codec;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int size = (int) Math.max(capacity, channel.size());
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long start = System.nanoTime();
+        load();
+        log.info("MappedFileSessionStore loaded {} sessions from {} in {}ms",
+                index.size(), path, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void put(SessionEntry entry) {
+        byte[] id = entry.getSessionId().getBytes(StandardCharsets.UTF_8);
+        byte[] value = codec.encode(entry.getValue());
+        int recordLength = align(RECORD_HEADER_SIZE + id.length + value.length);
+
+        lock.writeLock().lock();
+        try {
+            if (writePosition + recordLength > buffer.capacity()) {
+                compact();
+            }
+            if (writePosition + recordLength > buffer.capacity()) {
+                throw new IllegalStateException("세션 저장소 파일이 가득 찼습니다. capacity = " + buffer.capacity());
+            }
+
+            int offset = writePosition;
+            buffer.putLong(offset + CREATION_TIME, entry.getCreationTime());
+            buffer.putLong(offset + LAST_ACCESSED_TIME, entry.getLastAccessedTime());
+            buffer.putLong(offset + SEQUENCE, entry.getSequence());
+            buffer.putInt(offset + RECORD_LENGTH, recordLength);
+            buffer.putInt(offset + ID_LENGTH, id.length);
+            buffer.putInt(offset + VALUE_LENGTH, value.length);
+            buffer.put(offset + RECORD_HEADER_SIZE, id);
+            buffer.put(offset + RECORD_HEADER_SIZE + id.length, value);
+            INT_HANDLE.setVolatile(buffer, offset + STATUS, LIVE);
+
+            writePosition += recordLength;
+            buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+
+            // 같은 ID 의 이전 레코드가 있으면 제거 처리
+            Integer previous = index.put(entry.getSessionId(), offset);
+            if (previous != null) {
+                INT_HANDLE.setVolatile(buffer, previous + STATUS, REMOVED);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public SessionEntry get(String sessionId) {
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(sessionId);
+            if (offset == null || (int) INT_HANDLE.getVolatile(buffer, offset + STATUS) != LIVE) {
+                return null;
+            }
+            return read(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean touch(SessionEntry entry, long previousAccess, long now) {
+        // get() 은 매번 새 SessionEntry 를 만들므로, 파일의 값으로 비교한다.
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(entry.getSessionId());
+            if (offset == null || buffer.getLong(offset + SEQUENCE) != entry.getSequence()
+                    || !LONG_HANDLE.compareAndSet(buffer, offset + LAST_ACCESSED_TIME, previousAccess, now)) {
+                return false;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        entry.touch(previousAccess, now);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String sessionId, long sequence) {
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(sessionId);
+            if (offset == null || buffer.getLong(offset + SEQUENCE) != sequence) {
+                return false;
+            }
+            if (!index.remove(sessionId, offset)) {
+                return false;
+            }
+
+            INT_HANDLE.setVolatile(buffer, offset + STATUS, REMOVED);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void forEach(Consumer<SessionEntry> action) {
+        for (String sessionId : index.keySet()) {
+            SessionEntry entry = get(sessionId);
+            if (entry != null) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * 변경 내용을 디스크에 반영하고 파일을 닫는다.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 파일을 처음부터 훑어서 살아있는 레코드의 인덱스를 만든다.
+     * 처음 만든 파일이면 헤더를 쓴다.
+     */
+    private void load() {
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(WRITE_POSITION_OFFSET, HEADER_SIZE);
+            writePosition = HEADER_SIZE;
+            return;
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("지원하지 않는 세션 파일 버전: " + buffer.getInt(4));
+        }
+
+        int end = (int) buffer.getLong(WRITE_POSITION_OFFSET);
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            int recordLength = buffer.getInt(offset + RECORD_LENGTH);
+            if (recordLength < RECORD_HEADER_SIZE || offset + recordLength > end) {
+                // 쓰다 만 레코드, 이후는 버린다.
+                log.warn("MappedFileSessionStore truncated at {}", offset);
+                end = offset;
+                break;
+            }
+
+            if (buffer.getInt(offset + STATUS) == LIVE) {
+                Integer previous = index.put(readId(offset), offset);
+                if (previous != null) {
+                    buffer.putInt(previous + STATUS, REMOVED);
+                }
+            }
+            offset += recordLength;
+        }
+
+        writePosition = end;
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    /**
+     * 살아있는 레코드를 파일 앞쪽으로 모은다. write lock 을 잡은 상태에서만 호출한다.
+     */
+    private void compact() {
+        int read = HEADER_SIZE;
+        int write = HEADER_SIZE;
+        while (read < writePosition) {
+            int recordLength = buffer.getInt(read + RECORD_LENGTH);
+            if (buffer.getInt(read + STATUS) == LIVE) {
+                if (read != write) {
+                    byte[] record = new byte[recordLength];
+                    buffer.get(read, record);
+                    buffer.put(write, record);
+                    index.put(readId(write), write);
+                }
+                write += recordLength;
+            }
+            read += recordLength;
+        }
+
+        log.debug("MappedFileSessionStore compacted {} -> {} bytes", writePosition, write);
+        writePosition = write;
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    private SessionEntry read(int offset) {
+        int idLength = buffer.getInt(offset + ID_LENGTH);
+        byte[] value = new byte[buffer.getInt(offset + VALUE_LENGTH)];
+        buffer.get(offset + RECORD_HEADER_SIZE + idLength, value);
+
+        return new SessionEntry(
+                readId(offset),
+                codec.decode(value),
+                buffer.getLong(offset + CREATION_TIME),
+                buffer.getLong(offset + SEQUENCE),
+                (long) LONG_HANDLE.getOpaque(buffer, offset + LAST_ACCESSED_TIME)
+        );
+    }
+
+    private String readId(int offset) {
+        byte[] id = new byte[buffer.getInt(offset + ID_LENGTH)];
+        buffer.get(offset + RECORD_HEADER_SIZE, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+}
@@ -0,0 +1,51 @@
+package hello.springcoremvc26.web.session.store;
+
+import hello.springcoremvc26.web.session.SessionEntry;
+
+import java.util.function.Consumer;
+
+/**
+ * SessionManager 의 세션 저장소
+ * <p>
+ * 같은 세션 ID 라도 sequence 가 다르면 다른 세션으로 본다.
+ * 구현체는 여러 스레드에서 동시에 호출된다.
+ */
+public interface SessionStore {
+    /**
+     * 세션 저장
+     */
+    void put(SessionEntry entry);
+
+    /**
+     * 세션 조회
+     *
+     * @return 없으면 null
+     */
+    SessionEntry get(String sessionId);
+
+    /**
+     * 마지막 접근 시각이 아직 previousAccess 일 때만 now 로 갱신
+     * <p>
+     * 같은 세션에 동시에 들어온 요청 중 한 스레드만 성공하므로, 성공한 쪽만 통계와 복제에 반영한다.
+     *
+     * @return 다른 스레드가 먼저 갱신했거나 이미 제거된 세션이면 false
+     */
+    boolean touch(SessionEntry entry, long previousAccess, long now);
+
+    /**
+     * 세션 ID 와 sequence 가 모두 같은 세션이 있을 때만 제거
+     *
+     * @return 제거되었으면 true
+     */
+    boolean remove(String sessionId, long sequence);
+
+    int size();
+
+    /**
+     * 저장된 모든 세션 순회, 시작 시 만료 예약을 다시 잡는 용도
+     */
+    void forEach(Consumer<SessionEntry> action);
+
+    default void close() {
+    }
+}
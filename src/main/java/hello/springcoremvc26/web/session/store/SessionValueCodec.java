@@ -0,0 +1,10 @@
+package hello.springcoremvc26.web.session.store;
+
+/**
+ * 세션 값 <-> 바이트 변환
+ */
+public interface SessionValueCodec {
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes);
+}
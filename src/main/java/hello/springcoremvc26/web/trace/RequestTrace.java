@@ -0,0 +1,165 @@
+package hello.springcoremvc26.web.trace;
+
+import hello.springcoremvc26.web.SessionConst;
+import jakarta.servlet.ServletRequest;
+import lombok.Getter;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * 요청 하나의 처리 기록
+ * <p>
+ * 필터와 인터셉터는 단계별 시각만 남기고, 로그는 LogFilter 가 요청이 끝날 때 한 번만 남긴다.
+ * 요청을 처리하는 스레드 하나에서만 사용한다.
+ */
+public class RequestTrace {
+    /**
+     * 처리 단계, 실행 순서대로 나열
+     */
+    public enum Phase {
+        LOG_FILTER_START,
+        LOGIN_FILTER_START,
+        LOG_INTERCEPTOR_PRE,
+        LOGIN_INTERCEPTOR_PRE,
+        LOGIN_INTERCEPTOR_POST,
+        LOG_INTERCEPTOR_POST,
+        LOGIN_INTERCEPTOR_AFTER,
+        LOG_INTERCEPTOR_AFTER,
+        LOGIN_FILTER_END,
+        LOG_FILTER_END
+    }
+
+    /**
+     * 처리 결과
+     */
+    public enum Outcome {
+        OK,
+        LOGIN_REDIRECT, // 미인증 사용자 요청
+        ERROR
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    @Getter
+    private final String requestId;
+    private final String method;
+    private final String requestURI;
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    private Object handler;
+    private int status;
+    @Getter
+    private Outcome outcome = Outcome.OK;
+    @Getter
+    private Throwable error;
+
+    public RequestTrace(
+            String requestId,
+            String method,
+            String requestURI
+    ) {
+        this.requestId = requestId;
+        this.method = method;
+        this.requestURI = requestURI;
+    }
+
+    /**
+     * 요청에 연결된 기록, LogFilter 를 거치지 않은 요청이면 null
+     */
+    public static RequestTrace current(ServletRequest request) {
+        return (RequestTrace) request.getAttribute(SessionConst.REQUEST_TRACE);
+    }
+
+    /**
+     * 요청에 연결된 기록이 있으면 단계 시각을 남긴다.
+     */
+    public static void markCurrent(
+            ServletRequest request,
+            Phase phase
+    ) {
+        RequestTrace trace = current(request);
+        if (trace != null) {
+            trace.mark(phase);
+        }
+    }
+
+    public void bind(ServletRequest request) {
+        request.setAttribute(SessionConst.REQUEST_TRACE, this);
+    }
+
+    public void mark(Phase phase) {
+        phaseNanos[phase.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * 두 단계 사이의 시간, 어느 한쪽이라도 기록되지 않았으면 -1
+     */
+    public long elapsedNanos(
+            Phase from,
+            Phase to
+    ) {
+        long start = phaseNanos[from.ordinal()];
+        long end = phaseNanos[to.ordinal()];
+        return start == 0 || end == 0 ? -1 : end - start;
+    }
+
+    public void handler(Object handler) {
+        this.handler = handler;
+    }
+
+    public void loginRedirect() {
+        this.outcome = Outcome.LOGIN_REDIRECT;
+    }
+
+    /**
+     * 가장 먼저 기록된 예외만 남긴다.
+     */
+    public void error(Throwable error) {
+        if (this.error == null) {
+            this.error = error;
+            this.outcome = Outcome.ERROR;
+        }
+    }
+
+    public void complete(int status) {
+        this.status = status;
+    }
+
+    /**
+     * 한 줄 로그, 단계별 시각은 시작 시각으로부터의 마이크로초
+     * <p>
+     * 예) [a1b2c3-1f] GET /items 200 OK handler=ItemController#items total=1532us
+     * loginFilter=+15 logInterceptor.pre=+120 ...
+     */
+    @Override
+    public String toString() {
+        long start = phaseNanos[Phase.LOG_FILTER_START.ordinal()];
+        long end = phaseNanos[Phase.LOG_FILTER_END.ordinal()];
+
+        StringBuilder sb = new StringBuilder(256)
+                .append('[').append(requestId).append("] ")
+                .append(method).append(' ').append(requestURI).append(' ')
+                .append(status).append(' ').append(outcome)
+                .append(" handler=").append(handlerName())
+                .append(" total=").append(end > 0 ? (end - start) / 1000 : -1).append("us");
+
+        for (Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos == 0 || phase == Phase.LOG_FILTER_START || phase == Phase.LOG_FILTER_END) {
+                continue;
+            }
+            sb.append(' ').append(phase.name()).append("=+").append((nanos - start) / 1000);
+        }
+
+        if (error != null) {
+            sb.append(" error=").append(error);
+        }
+        return sb.toString();
+    }
+
+    private String handlerName() {
+        if (handler instanceof HandlerMethod hm) {
+            return hm.getBeanType().getSimpleName() + "#" + hm.getMethod().getName();
+        }
+        return handler == null ? "-" : handler.getClass().getSimpleName();
+    }
+}
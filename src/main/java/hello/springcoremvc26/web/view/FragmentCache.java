@@ -0,0 +1,93 @@
+package hello.springcoremvc26.web.view;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 렌더링된 HTML 조각 캐시 (LRU)
+ * <p>
+ * 키에는 내용이 바뀌면 같이 바뀌는 값 (상품 버전, 저장소 변경 표시 등) 을 넣는다.
+ * 그래서 따로 무효화하지 않고, 오래된 키는 쓰이지 않다가 LRU 로 밀려난다.
+ */
+@Component
+public class FragmentCache {
+    private final int maxEntries;
+    private final Map<Object, String> cache;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public FragmentCache(ViewProperties viewProperties) {
+        this.maxEntries = viewProperties.getFragmentCacheSize();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 캐시된 조각을 반환하고, 없으면 렌더링해서 넣는다.
+     * <p>
+     * 렌더링은 락 밖에서 하므로, 같은 키를 동시에 렌더링할 수는 있다. 결과는 같다.
+     *
+     * @param key      조각 키
+     * @param renderer 캐시에 없을 때 호출
+     * @return HTML 조각
+     */
+    public String get(
+            Object key,
+            Supplier<String> renderer
+    ) {
+        if (maxEntries <= 0) {
+            return renderer.get();
+        }
+
+        String html;
+        lock.lock();
+        try {
+            html = cache.get(key);
+        } finally {
+            lock.unlock();
+        }
+
+        if (html != null) {
+            hitCount.increment();
+            return html;
+        }
+
+        missCount.increment();
+        html = renderer.get();
+        lock.lock();
+        try {
+            cache.put(key, html);
+        } finally {
+            lock.unlock();
+        }
+        return html;
+    }
+
+    public int getSize() {
+        lock.lock();
+        try {
+            return cache.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+}
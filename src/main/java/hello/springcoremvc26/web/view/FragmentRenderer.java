@@ -0,0 +1,52 @@
+package hello.springcoremvc26.web.view;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 템플릿의 일부(th:fragment)만 문자열로 렌더링한다. FragmentCache 에 넣을 조각을 만드는 용도
+ */
+@Component
+@RequiredArgsConstructor
+public class FragmentRenderer {
+    private final ITemplateEngine templateEngine;
+    private volatile JakartaServletWebApplication application;
+
+    /**
+     * @param template  템플릿 이름
+     * @param fragment  th:fragment 이름
+     * @param variables 조각에서 쓰는 변수
+     */
+    public String render(
+            String template,
+            String fragment,
+            Map<String, Object> variables,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        WebContext context = new WebContext(
+                application(request).buildExchange(request, response),
+                LocaleContextHolder.getLocale(),
+                variables
+        );
+        return templateEngine.process(template, Set.of(fragment), context);
+    }
+
+    private JakartaServletWebApplication application(HttpServletRequest request) {
+        JakartaServletWebApplication current = application;
+        if (current == null) {
+            current = JakartaServletWebApplication.buildApplication(request.getServletContext());
+            application = current;
+        }
+        return current;
+    }
+}
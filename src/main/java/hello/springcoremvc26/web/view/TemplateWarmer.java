@@ -0,0 +1,42 @@
+package hello.springcoremvc26.web.view;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * 시작할 때 템플릿을 미리 파싱해서 템플릿 캐시에 넣어둔다.
+ * <p>
+ * 서버가 요청을 받기 전에 실행되므로, 배포 직후 첫 요청이 파싱 비용을 내지 않는다.
+ * 요청 없이 처리하므로 링크(@{...}) 같은 웹 전용 표현식에서 실패하지만,
+ * 타임리프는 파싱 결과를 캐시에 넣은 뒤 처리하므로 파싱된 템플릿은 남는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TemplateWarmer implements SmartInitializingSingleton {
+    private final ITemplateEngine templateEngine;
+    private final ViewProperties viewProperties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        for (String template : viewProperties.getWarmUpTemplates()) {
+            try {
+                templateEngine.process(template, new Context(Locale.getDefault()), Writer.nullWriter());
+            } catch (TemplateProcessingException e) {
+                // 요청 정보가 필요한 표현식, 파싱은 끝난 상태
+                log.trace("TemplateWarmer {} processed partially: {}", template, e.getMessage());
+            }
+        }
+        log.info("TemplateWarmer parsed {} templates in {}ms",
+                viewProperties.getWarmUpTemplates().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,29 @@
+package hello.springcoremvc26.web.view;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 뷰 렌더링 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.view")
+public class ViewProperties {
+    /**
+     * 시작할 때 미리 파싱해둘 템플릿
+     */
+    private List<String> warmUpTemplates = new ArrayList<>(List.of(
+            "home", "loginHome", "items/items", "items/item", "items/addForm", "items/editForm",
+            "login/loginForm", "members/addMemberForm"
+    ));
+
+    /**
+     * 렌더링된 조각(fragment)을 최대 몇 개까지 보관할지, 0 이면 캐시하지 않는다.
+     */
+    private int fragmentCacheSize = 256;
+}
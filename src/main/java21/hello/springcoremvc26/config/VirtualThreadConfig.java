@@ -0,0 +1,43 @@
+package hello.springcoremvc26.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.Executors;
+
+/**
+ * 가상 스레드 모드 (virtual 프로파일, Java 21 빌드에서만 포함된다.)
+ * <p>
+ * 톰캣 요청 처리와 @Async 작업을 요청마다 새 가상 스레드에서 실행한다.
+ * 블로킹되는 동안 캐리어 스레드를 놓아주므로, 느린 클라이언트나 블로킹 작업이 많아도 스레드 수 제한에 걸리지 않는다.
+ */
+@Slf4j
+@EnableAsync
+@Configuration
+@Profile("virtual")
+public class VirtualThreadConfig {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Tomcat request handling on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * 기본 applicationTaskExecutor 대신 등록되어 @Async 와 스프링 MVC 비동기 처리에 쓰인다.
+     */
+    @Bean(name = {
+            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,272 @@
+package hello.springcoremvc26.domain.item;
+
+import hello.springcoremvc26.domain.item.store.ColumnarItemStore;
+import hello.springcoremvc26.domain.item.store.HeapItemStore;
+import hello.springcoremvc26.domain.journal.Journal;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ItemRepositoryTest {
+    ItemRepository itemRepository = new ItemRepository();
+
+    @Test
+    void findAllSnapshot() {
+        itemRepository.save(new Item("itemA", 10000, 10));
+        List<Item> first = itemRepository.findAll();
+
+        // 변경이 없으면 같은 스냅샷
+        assertThat(itemRepository.findAll()).isSameAs(first);
+        assertThatThrownBy(() -> first.add(new Item()))
+                .isInstanceOf(UnsupportedOperationException.class);
+
+        // 변경이 있으면 새 스냅샷
+        itemRepository.save(new Item("itemB", 20000, 20));
+        assertThat(itemRepository.findAll()).hasSize(2);
+        assertThat(first).hasSize(1);
+    }
+
+    @Test
+    void findPage() {
+        itemRepository.save(new Item("itemC", 30000, 1));
+        itemRepository.save(new Item("itemA", 20000, 1));
+        itemRepository.save(new Item("itemB", 20000, 1));
+
+        // 가격이 같으면 ID 순서
+        ItemPage first = itemRepository.findPage(ItemSort.PRICE, null, 2);
+        assertThat(first.items()).extracting(Item::getItemName).containsExactly("itemA", "itemB");
+        assertThat(first.hasNext()).isTrue();
+
+        // 커서는 문자열로 주고받는다.
+        ItemCursor cursor = ItemCursor.decode(first.next().encode(), ItemSort.PRICE);
+        ItemPage second = itemRepository.findPage(ItemSort.PRICE, cursor, 2);
+        assertThat(second.items()).extracting(Item::getItemName).containsExactly("itemC");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void findPageAfterUpdate() {
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 1));
+        itemRepository.save(new Item("itemB", 20000, 1));
+
+        itemRepository.update(itemA.getId(), new Item("itemZ", 10000, 1));
+
+        // 수정된 이름 기준으로 다시 정렬된다.
+        List<String> names = new ArrayList<>();
+        ItemCursor cursor = null;
+        do {
+            ItemPage page = itemRepository.findPage(ItemSort.NAME, cursor, 1);
+            page.items().forEach(item -> names.add(item.getItemName()));
+            cursor = page.next();
+        } while (cursor != null);
+        assertThat(names).containsExactly("itemB", "itemZ");
+    }
+
+    @Test
+    void invalidCursor() {
+        String idCursor = ItemCursor.of(ItemSort.ID, itemRepository.save(new Item("itemA", 10000, 1))).encode();
+
+        assertThatThrownBy(() -> ItemCursor.decode(idCursor, ItemSort.NAME))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ItemCursor.decode("not a cursor", ItemSort.ID))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void versionAndModificationStamp() {
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        long stamp = itemRepository.getModificationStamp();
+        assertThat(item.getVersion()).isZero();
+
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+        assertThat(itemRepository.findById(item.getId()).getVersion()).isEqualTo(1);
+        assertThat(itemRepository.getModificationStamp()).isGreaterThan(stamp);
+
+        // 없는 상품 수정은 변경으로 치지 않는다.
+        stamp = itemRepository.getModificationStamp();
+        itemRepository.update(-1L, new Item("none", 1, 1));
+        assertThat(itemRepository.getModificationStamp()).isEqualTo(stamp);
+    }
+
+    @Test
+    void search() {
+        itemRepository.save(new Item("Apple MacBook Pro", 3000, 5));
+        itemRepository.save(new Item("Apple iPhone", 1000, 50));
+        itemRepository.save(new Item("Samsung Galaxy Pro", 900, 20));
+        itemRepository.save(new Item("apple-juice", 3, 500));
+
+        // 상품명은 토큰 접두어, 대소문자 무시, 모든 토큰이 일치해야 한다.
+        assertThat(search(new ItemSearch("app pro", null, null, null, null)))
+                .containsExactly("Apple MacBook Pro");
+        assertThat(search(new ItemSearch("APP", null, null, null, 100)))
+                .containsExactly("Apple MacBook Pro", "Apple iPhone");
+
+        // 상품명이 없으면 가격 순서, 가격도 없으면 수량 순서
+        assertThat(search(new ItemSearch(null, 900, 3000, null, null)))
+                .containsExactly("Samsung Galaxy Pro", "Apple iPhone", "Apple MacBook Pro");
+        assertThat(search(new ItemSearch(null, null, null, 20, 500)))
+                .containsExactly("Samsung Galaxy Pro", "Apple iPhone", "apple-juice");
+    }
+
+    @Test
+    void searchPage() {
+        for (int i = 1; i <= 5; i++) {
+            itemRepository.save(new Item("item " + i, 1000, i));
+        }
+        itemRepository.save(new Item("other", 1000, 1));
+
+        ItemSearch search = new ItemSearch("item", null, null, null, null);
+        ItemPage first = itemRepository.search(search, null, 3);
+        assertThat(first.items()).extracting(Item::getItemName).containsExactly("item 1", "item 2", "item 3");
+
+        ItemCursor cursor = ItemCursor.decode(first.next().encode(), search.sort());
+        ItemPage second = itemRepository.search(search, cursor, 3);
+        assertThat(second.items()).extracting(Item::getItemName).containsExactly("item 4", "item 5");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void searchAfterUpdate() {
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.update(item.getId(), new Item("renamed", 500, 10));
+
+        // 이전 이름, 가격으로는 찾을 수 없다.
+        assertThat(search(new ItemSearch("itema", null, null, null, null))).isEmpty();
+        assertThat(search(new ItemSearch(null, 10000, null, null, null))).isEmpty();
+        assertThat(search(new ItemSearch("ren", null, 1000, null, null))).containsExactly("renamed");
+
+        itemRepository.clearStore();
+        assertThat(search(new ItemSearch("ren", null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void searchEmptyRange() {
+        itemRepository.save(new Item("itemA", 3000, 10));
+
+        // 최소값이 최대값보다 크면 예외 없이 빈 결과
+        ItemPage page = itemRepository.search(new ItemSearch(null, 5000, 1000, null, null), null, 10);
+        assertThat(page.items()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+        assertThat(search(new ItemSearch("item", null, null, 20, 10))).isEmpty();
+    }
+
+    @Test
+    void searchCursorOutsideRange() {
+        for (int price = 1000; price <= 5000; price += 1000) {
+            itemRepository.save(new Item("item" + price, price, 1));
+        }
+        ItemCursor low = itemRepository.search(new ItemSearch(null, 1000, 5000, null, null), null, 1).next();
+        ItemCursor high = ItemCursor.of(ItemSort.PRICE, itemRepository.findById(5L));
+
+        // 범위보다 앞의 커서는 범위 처음부터, 범위보다 뒤의 커서는 빈 결과
+        assertThat(itemRepository.search(new ItemSearch(null, 3000, 4000, null, null), low, 10).items())
+                .extracting(Item::getItemName).containsExactly("item3000", "item4000");
+        assertThat(itemRepository.search(new ItemSearch(null, 1000, 3000, null, null), high, 10).items())
+                .isEmpty();
+    }
+
+    @Test
+    void searchScanLimit() {
+        AtomicInteger visited = new AtomicInteger();
+        itemRepository = new ItemRepository(new HeapItemStore() {
+            @Override
+            public Item get(long id) {
+                visited.incrementAndGet();
+                return super.get(id);
+            }
+        }, (Journal) null);
+        int count = ItemRepository.SEARCH_SCAN_LIMIT * 3;
+        for (int i = 0; i < count; i++) {
+            itemRepository.save(new Item("item", 1000, 1));
+        }
+        itemRepository.save(new Item("target", 1000, 100));
+
+        // 가격 구간의 후보는 모두 읽지 않고, 상한까지만 확인한 뒤 커서를 준다.
+        ItemSearch search = new ItemSearch(null, 1000, 1000, 100, null);
+        ItemPage page = itemRepository.search(search, null, 10);
+        assertThat(page.items()).isEmpty();
+        assertThat(page.hasNext()).isTrue();
+        assertThat(visited.get()).isLessThanOrEqualTo(ItemRepository.SEARCH_SCAN_LIMIT + 1);
+
+        List<String> found = new ArrayList<>();
+        while (page.hasNext()) {
+            visited.set(0);
+            page = itemRepository.search(search, page.next(), 10);
+            assertThat(visited.get()).isLessThanOrEqualTo(ItemRepository.SEARCH_SCAN_LIMIT + 1);
+            page.items().forEach(item -> found.add(item.getItemName()));
+        }
+        assertThat(found).containsExactly("target");
+    }
+
+    @Test
+    void columnarStore() {
+        itemRepository = new ItemRepository(new ColumnarItemStore(), (Journal) null);
+        Item itemA = itemRepository.save(new Item("itemA", 20000, 1));
+        itemRepository.save(new Item("itemB", 10000, 1));
+
+        itemRepository.update(itemA.getId(), new Item("renamed", 500, 3));
+
+        // 인덱스와 조회 결과가 컬럼의 값을 따른다.
+        Item found = itemRepository.findById(itemA.getId());
+        assertThat(found.getItemName()).isEqualTo("renamed");
+        assertThat(found.getVersion()).isEqualTo(1);
+        assertThat(itemRepository.findPage(ItemSort.PRICE, null, 10).items())
+                .extracting(Item::getItemName).containsExactly("renamed", "itemB");
+        assertThat(search(new ItemSearch("ren", null, 1000, null, null))).containsExactly("renamed");
+        assertThat(search(new ItemSearch("itema", null, null, null, null))).isEmpty();
+
+        // findAll() 스냅샷은 컬럼을 보여주는 뷰가 아닌 복사본이다.
+        List<Item> snapshot = itemRepository.findAll();
+        itemRepository.update(itemA.getId(), new Item("again", 700, 5));
+        itemRepository.clearStore();
+        assertThat(snapshot).extracting(Item::getItemName, Item::getPrice, Item::getVersion)
+                .containsExactlyInAnyOrder(tuple("renamed", 500, 1L), tuple("itemB", 10000, 0L));
+    }
+
+    private List<String> search(ItemSearch search) {
+        return itemRepository.search(search, null, 10).items().stream()
+                .map(Item::getItemName)
+                .toList();
+    }
+
+    @Test
+    void concurrentSave() throws InterruptedException {
+        int threads = 8;
+        int perThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(itemRepository.save(new Item("item", 10000, 1)).getId());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // ID 중복 없이, 유실 없이 모두 저장
+        assertThat(ids).hasSize(threads * perThread);
+        assertThat(itemRepository.findAll()).hasSize(threads * perThread);
+    }
+}
@@ -0,0 +1,101 @@
+package hello.springcoremvc26.domain.item.store;
+
+import hello.springcoremvc26.domain.item.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarItemStoreTest {
+    ColumnarItemStore store = new ColumnarItemStore();
+
+    @Test
+    void insertAndRead() {
+        assertThat(store.insert(item(70_000L, "상품A", 1000, null), () -> {})).isTrue();
+        assertThat(store.insert(item(70_000L, "상품B", 2000, 1), () -> {})).isFalse();
+
+        Item found = store.get(70_000L);
+        assertThat(found.getId()).isEqualTo(70_000L);
+        assertThat(found.getItemName()).isEqualTo("상품A");
+        assertThat(found.getPrice()).isEqualTo(1000);
+        assertThat(found.getQuantity()).isNull();
+
+        assertThat(store.get(1L)).isNull();
+        assertThat(store.get(1L << 40)).isNull();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void viewReflectsChanges() {
+        store.insert(item(1L, "itemA", 1000, 10), () -> {});
+        Item view = store.get(1L);
+
+        // 뷰의 setter 는 컬럼에 바로 쓰고, 이미 받은 뷰도 바뀐 값을 읽는다.
+        store.computeIfPresent(1L, item -> {
+            item.setItemName(null);
+            item.setQuantity(5);
+            item.setVersion(3);
+        });
+        assertThat(view.getItemName()).isNull();
+        assertThat(view.getQuantity()).isEqualTo(5);
+        assertThat(view.getVersion()).isEqualTo(3);
+        assertThatThrownBy(() -> view.setId(2L)).isInstanceOf(UnsupportedOperationException.class);
+
+        // 이전 상품명은 clear() 전까지 남는다.
+        assertThat(store.getDeadNameBytes()).isEqualTo("itemA".length());
+
+        store.clear();
+        assertThat(store.get(1L)).isNull();
+        assertThat(view.getPrice()).isNull();
+    }
+
+    @Test
+    void forEachInIdOrder() {
+        store.put(item(70_000L, "b", 2000, 2));
+        store.put(item(3L, "a", 1000, 1));
+        store.put(item(3L, "a2", 1000, 1));
+
+        List<Long> ids = new ArrayList<>();
+        store.forEach(item -> ids.add(item.getId()));
+        assertThat(ids).containsExactly(3L, 70_000L);
+        assertThat(store.get(3L).getItemName()).isEqualTo("a2");
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void clearWhileInserting() throws InterruptedException {
+        Thread writer = new Thread(() -> {
+            for (long id = 1; id <= 200_000; id++) {
+                store.insert(item(id, "item" + id, 1000, 1), () -> {});
+            }
+        });
+        writer.start();
+        for (int i = 0; i < 20; i++) {
+            store.clear();
+            Thread.yield();
+        }
+        writer.join();
+
+        // 비우는 도중의 insert 가 size 에만 남지 않고, 남은 상품명은 새 영역에서 읽힌다.
+        List<Long> ids = new ArrayList<>();
+        store.forEach(item -> {
+            assertThat(item.getItemName()).isEqualTo("item" + item.getId());
+            ids.add(item.getId());
+        });
+        assertThat(store.size()).isEqualTo(ids.size());
+    }
+
+    private static Item item(
+            Long id,
+            String itemName,
+            Integer price,
+            Integer quantity
+    ) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,222 @@
+package hello.springcoremvc26.domain.journal;
+
+import hello.springcoremvc26.domain.item.Item;
+import hello.springcoremvc26.domain.item.ItemRepository;
+import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.domain.member.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverItems() {
+        Journal journal = new Journal(dir, "items", 0);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.update(itemA.getId(), new Item("itemA2", 15000, 5));
+        journal.close();
+
+        ItemRepository recovered = new ItemRepository(new Journal(dir, "items", 0));
+        assertThat(recovered.findAll()).hasSize(2);
+
+        Item item = recovered.findById(itemA.getId());
+        assertThat(item.getItemName()).isEqualTo("itemA2");
+        assertThat(item.getPrice()).isEqualTo(15000);
+        assertThat(item.getVersion()).isEqualTo(1L);
+
+        // 발급된 ID 다음부터 이어서 발급한다.
+        assertThat(recovered.save(new Item("itemC", 1000, 1)).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void recoverFromSnapshotAndTail() throws IOException {
+        Journal journal = new Journal(dir, "items", 0);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.clearStore();
+        itemRepository.save(new Item("itemB", 20000, 20));
+        journal.snapshot();
+        itemRepository.saveAll(List.of(new Item("itemC", 3000, 3), new Item("itemD", 4000, 4)));
+        itemRepository.update(2L, new Item("itemB2", 25000, 25));
+        journal.close();
+
+        // 스냅샷 이전 세그먼트는 지워진다.
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("items-0000000000000000001.snapshot", "items-0000000000000000002.log");
+        }
+
+        // 쓰다 만 레코드는 무시된다.
+        Files.write(dir.resolve("items-0000000000000000002.log"), new byte[]{0, 0, 0, 8, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        ItemRepository recovered = new ItemRepository(new Journal(dir, "items", 0));
+        assertThat(recovered.findAll()).extracting(Item::getItemName)
+                .containsExactlyInAnyOrder("itemB2", "itemC", "itemD");
+        assertThat(recovered.findById(1L)).isNull();
+        assertThat(recovered.findById(2L).getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void recoverAfterWriteFailure() {
+        FailingChannel[] segment = new FailingChannel[1];
+        Journal journal = new Journal(dir, "items", 0, path -> segment[0] = new FailingChannel(
+                FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+        ));
+        ItemRepository itemRepository = new ItemRepository(journal);
+        itemRepository.save(new Item("itemA", 10000, 10));
+
+        // 레코드 앞부분만 쓰고 실패
+        segment[0].failNextWrite = true;
+        assertThatThrownBy(() -> itemRepository.save(new Item("itemB", 20000, 20)))
+                .isInstanceOf(UncheckedIOException.class);
+        itemRepository.save(new Item("itemC", 30000, 30));
+        journal.close();
+
+        // 실패 뒤에 성공한 레코드는 재시작 후에도 남는다.
+        ItemRepository recovered = new ItemRepository(new Journal(dir, "items", 0));
+        assertThat(recovered.findAll()).extracting(Item::getItemName)
+                .containsExactlyInAnyOrder("itemA", "itemC");
+    }
+
+    @Test
+    void recoverMembers() {
+        Journal journal = new Journal(dir, "members", 0);
+        MemberRepository memberRepository = new MemberRepository(journal);
+        memberRepository.save(new Member("test", "테스터", "test!"));
+        memberRepository.save(new Member("test2", "테스터2", "test2!"));
+        journal.close();
+
+        MemberRepository recovered = new MemberRepository(new Journal(dir, "members", 0));
+        assertThat(recovered.findAll()).hasSize(2);
+        assertThat(recovered.findByLongId("test2")).hasValueSatisfying(member -> {
+            assertThat(member.getId()).isEqualTo(2L);
+            assertThat(member.getName()).isEqualTo("테스터2");
+        });
+    }
+
+    /**
+     * failNextWrite 면 다음 기록에서 앞 몇 바이트만 쓰고 실패한다.
+     */
+    private static class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        volatile boolean failNextWrite;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer first = srcs[offset];
+                delegate.write(first.slice(first.position(), Math.min(first.remaining(), 5)));
+                throw new IOException("injected write failure");
+            }
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package hello.springcoremvc26.domain.login;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+    MutableClock clock = new MutableClock();
+
+    @Test
+    void loginIdLimit() {
+        LoginThrottle throttle = newThrottle(3, 100);
+
+        // 주소가 달라도 같은 ID 는 capacity 까지만 허용
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("test", "10.0.0." + i)).isTrue();
+        }
+        assertThat(throttle.tryAcquire("test", "10.0.0.9")).isFalse();
+        assertThat(throttle.tryAcquire("other", "10.0.0.9")).isTrue();
+
+        // refill 시간이 지나면 하나씩 다시 허용
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(throttle.tryAcquire("test", "10.0.0.9")).isTrue();
+        assertThat(throttle.tryAcquire("test", "10.0.0.9")).isFalse();
+
+        assertThat(throttle.getAllowedCount()).isEqualTo(5);
+        assertThat(throttle.getLoginIdRejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void clientLimit() {
+        LoginThrottle throttle = newThrottle(100, 3);
+
+        // 한 주소에서 ID 를 바꿔가며 시도해도 capacity 까지만 허용
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("member" + i, "10.0.0.1")).isTrue();
+        }
+        assertThat(throttle.tryAcquire("member9", "10.0.0.1")).isFalse();
+        assertThat(throttle.getClientRejectedCount()).isEqualTo(1);
+
+        // 클라이언트에서 거절되면 ID 버킷은 만들지 않는다.
+        assertThat(throttle.getLoginIdBucketCount()).isEqualTo(3);
+    }
+
+    @Test
+    void maxBuckets() {
+        LoginThrottleProperties properties = newProperties(1, 100);
+        properties.setMaxBuckets(2);
+        LoginThrottle throttle = new LoginThrottle(properties, clock);
+
+        assertThat(throttle.tryAcquire("a", "10.0.0.1")).isTrue();
+        assertThat(throttle.tryAcquire("b", "10.0.0.1")).isTrue();
+
+        // 넘쳐도 새 키는 공용 버킷이 아니라 자기 버킷을 얻고, 먼저 만들어진 버킷이 나간다.
+        assertThat(throttle.tryAcquire("c", "10.0.0.1")).isTrue();
+        assertThat(throttle.tryAcquire("d", "10.0.0.1")).isTrue();
+        assertThat(throttle.getLoginIdBucketCount()).isEqualTo(2);
+        assertThat(throttle.getEvictedCount()).isEqualTo(2);
+        assertThat(throttle.tryAcquire("c", "10.0.0.1")).isFalse();
+
+        // 다시 가득 찬 버킷을 쓰고 있는 버킷보다 먼저 내보낸다.
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(throttle.tryAcquire("d", "10.0.0.1")).isTrue();
+        assertThat(throttle.tryAcquire("e", "10.0.0.1")).isTrue();
+        assertThat(throttle.tryAcquire("d", "10.0.0.1")).isFalse();
+        assertThat(throttle.getEvictedCount()).isEqualTo(3);
+    }
+
+    private LoginThrottle newThrottle(int loginIdCapacity, int clientCapacity) {
+        return new LoginThrottle(newProperties(loginIdCapacity, clientCapacity), clock);
+    }
+
+    private LoginThrottleProperties newProperties(int loginIdCapacity, int clientCapacity) {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setLoginId(new LoginThrottleProperties.Bucket(loginIdCapacity, Duration.ofSeconds(30)));
+        properties.setClient(new LoginThrottleProperties.Bucket(clientCapacity, Duration.ofSeconds(30)));
+        return properties;
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2023-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
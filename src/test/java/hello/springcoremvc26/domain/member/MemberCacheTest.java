@@ -0,0 +1,51 @@
+package hello.springcoremvc26.domain.member;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCacheTest {
+    MemberRepository memberRepository = new MemberRepository();
+
+    @Test
+    void get() {
+        MemberCache memberCache = new MemberCache(memberRepository, 16);
+        Member member = memberRepository.save(new Member("test", "테스터", "test!"));
+
+        assertThat(memberCache.get(member.getId())).isSameAs(member);
+        assertThat(memberCache.get(member.getId())).isSameAs(member);
+        assertThat(memberCache.getHitCount()).isEqualTo(1);
+        assertThat(memberCache.getMissCount()).isEqualTo(1);
+
+        // 없는 회원은 캐시에 남지 않는다.
+        assertThat(memberCache.get(-1L)).isNull();
+        assertThat(memberCache.get(null)).isNull();
+        assertThat(memberCache.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatedByRepository() {
+        MemberCache memberCache = new MemberCache(memberRepository, 16);
+        Member member = memberRepository.save(new Member("test", "테스터", "test!"));
+        assertThat(memberCache.get(member.getId())).isSameAs(member);
+
+        // 저장소가 비워지면 캐시에 있던 항목도 쓰이지 않는다.
+        memberRepository.clearStore();
+        assertThat(memberCache.get(member.getId())).isNull();
+        assertThat(memberCache.getSize()).isZero();
+
+        Member other = memberRepository.save(new Member("test", "테스터 2", "test2!"));
+        assertThat(memberCache.get(other.getId())).isSameAs(other);
+    }
+
+    @Test
+    void bounded() {
+        MemberCache memberCache = new MemberCache(memberRepository, 64);
+        for (int i = 0; i < 1_000; i++) {
+            Member member = memberRepository.save(new Member("test" + i, "테스터", "test!"));
+            assertThat(memberCache.get(member.getId())).isSameAs(member);
+        }
+
+        assertThat(memberCache.getSize()).isLessThanOrEqualTo(64);
+    }
+}
@@ -0,0 +1,39 @@
+package hello.springcoremvc26.domain.member;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberRepositoryTest {
+    MemberRepository memberRepository = new MemberRepository();
+
+    @Test
+    void findByLoginId() {
+        Member saved = memberRepository.save(new Member("test", "테스터", "test!"));
+
+        assertThat(memberRepository.findByLongId("test")).containsSame(saved);
+        assertThat(memberRepository.findByLongId("none")).isEmpty();
+    }
+
+    @Test
+    void duplicateLoginId() {
+        memberRepository.save(new Member("test", "테스터", "test!"));
+
+        // 같은 loginId 는 저장되지 않는다.
+        assertThat(memberRepository.saveIfAbsent(new Member("test", "테스터 2", "test2!"))).isEmpty();
+        assertThatThrownBy(() -> memberRepository.save(new Member("test", "테스터 3", "test3!")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(memberRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void clearStore() {
+        memberRepository.save(new Member("test", "테스터", "test!"));
+        memberRepository.clearStore();
+
+        // 인덱스도 같이 비워진다.
+        assertThat(memberRepository.findByLongId("test")).isEmpty();
+        assertThat(memberRepository.saveIfAbsent(new Member("test", "테스터", "test!"))).isPresent();
+    }
+}
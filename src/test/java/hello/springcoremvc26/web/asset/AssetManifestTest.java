@@ -0,0 +1,28 @@
+package hello.springcoremvc26.web.asset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetManifestTest {
+    @Test
+    void fingerprintedPath() {
+        byte[] manifest = "css/main.css=css/main-1a2b3c4d5e6f.css\n".getBytes(StandardCharsets.UTF_8);
+        AssetManifest assets = new AssetManifest(new ByteArrayResource(manifest));
+
+        assertThat(assets.path("css/main.css")).isEqualTo("/assets/css/main-1a2b3c4d5e6f.css");
+        // 목록에 없는 파일은 원래 경로
+        assertThat(assets.path("css/bootstrap.min.css.map")).isEqualTo("/assets/css/bootstrap.min.css.map");
+    }
+
+    @Test
+    void missingManifest() {
+        AssetManifest assets = new AssetManifest(new ClassPathResource("none.properties"));
+
+        assertThat(assets.path("css/main.css")).isEqualTo("/assets/css/main.css");
+    }
+}
@@ -0,0 +1,59 @@
+package hello.springcoremvc26.web.auth;
+
+import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.domain.member.MemberCache;
+import hello.springcoremvc26.domain.member.MemberRepository;
+import hello.springcoremvc26.web.SessionConst;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginMembersTest {
+    MemberRepository memberRepository = new MemberRepository();
+    MemberCache memberCache = new MemberCache(memberRepository, 16);
+
+    @Test
+    void memoizedPerRequest() {
+        Member member = memberRepository.save(new Member("test", "테스터", "test!"));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionConst.LOGIN_MEMBER, member.getId());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+
+        assertThat(LoginMembers.findId(request)).isEqualTo(member.getId());
+        assertThat(LoginMembers.find(request, memberCache)).isSameAs(member);
+
+        // 같은 요청에서는 세션을 다시 읽지 않는다.
+        session.removeAttribute(SessionConst.LOGIN_MEMBER);
+        assertThat(LoginMembers.find(request, memberCache)).isSameAs(member);
+
+        LoginMembers.forget(request);
+        assertThat(LoginMembers.findId(request)).isNull();
+        assertThat(LoginMembers.find(request, memberCache)).isNull();
+    }
+
+    @Test
+    void removedMember() {
+        Member member = memberRepository.save(new Member("test", "테스터", "test!"));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionConst.LOGIN_MEMBER, member.getId());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+
+        // 세션에 ID 가 남아 있어도 회원이 지워졌으면 찾지 못한다.
+        memberRepository.clearStore();
+        assertThat(LoginMembers.findId(request)).isEqualTo(member.getId());
+        assertThat(LoginMembers.find(request, memberCache)).isNull();
+    }
+
+    @Test
+    void anonymousDoesNotCreateSession() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertThat(LoginMembers.find(request, memberCache)).isNull();
+        assertThat(LoginMembers.findId(request)).isNull();
+        assertThat(request.getSession(false)).isNull();
+    }
+}
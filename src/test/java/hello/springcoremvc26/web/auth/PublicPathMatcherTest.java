@@ -0,0 +1,53 @@
+package hello.springcoremvc26.web.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicPathMatcherTest {
+    PublicPathMatcher matcher = new PublicPathMatcher(new AuthProperties().getPublicPaths());
+
+    @Test
+    void publicPaths() {
+        assertThat(matcher.matches("/")).isTrue();
+        assertThat(matcher.matches("/login")).isTrue();
+        assertThat(matcher.matches("/login/")).isTrue();
+        assertThat(matcher.matches("/members/add")).isTrue();
+        assertThat(matcher.matches("/assets/css/bootstrap.min-1a2b3c4d5e6f.css")).isTrue();
+        assertThat(matcher.matches("/assets/css/lib/main-0f1e2d3c4b5a.css.gz")).isTrue();
+        assertThat(matcher.matches("/favicon.ico")).isTrue();
+        assertThat(matcher.matches("/error")).isTrue();
+    }
+
+    @Test
+    void protectedPaths() {
+        assertThat(matcher.matches("/items")).isFalse();
+        assertThat(matcher.matches("/items/1/edit")).isFalse();
+        assertThat(matcher.matches("/members")).isFalse();
+        assertThat(matcher.matches("/loginx")).isFalse();
+        assertThat(matcher.matches("/images/favicon.ico")).isFalse();
+        // 정적 리소스는 지문이 붙은 /assets 아래에서만 제공한다.
+        assertThat(matcher.matches("/css/bootstrap.min.css")).isFalse();
+    }
+
+    @Test
+    void singleSegmentWildcard() {
+        PublicPathMatcher wildcard = new PublicPathMatcher(List.of("/items/*", "/docs/v*-guide"));
+
+        assertThat(wildcard.matches("/items/1")).isTrue();
+        assertThat(wildcard.matches("/items/1/edit")).isFalse();
+        assertThat(wildcard.matches("/docs/v2-guide")).isTrue();
+        assertThat(wildcard.matches("/docs/v2-notes")).isFalse();
+    }
+
+    @Test
+    void invalidPattern() {
+        assertThatThrownBy(() -> new PublicPathMatcher(List.of("/**/css")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PublicPathMatcher(List.of("login")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
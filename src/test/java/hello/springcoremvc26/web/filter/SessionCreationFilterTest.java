@@ -0,0 +1,43 @@
+package hello.springcoremvc26.web.filter;
+
+import hello.springcoremvc26.web.metrics.SessionCreationMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionCreationFilterTest {
+    SessionCreationMetrics metrics = new SessionCreationMetrics();
+    SessionCreationFilter filter = new SessionCreationFilter(metrics);
+
+    @Test
+    void countCreatedSession() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, resp) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/login");
+            ((HttpServletRequest) req).getSession();
+        });
+
+        assertThat(metrics.snapshot()).containsEntry("POST /login", 1L);
+    }
+
+    @Test
+    void ignoreExistingOrNoSession() throws Exception {
+        // 세션을 만들지 않은 요청
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(),
+                (req, resp) -> ((HttpServletRequest) req).getSession(false));
+
+        // 이미 세션이 있던 요청
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.setSession(new MockHttpSession());
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, resp) -> ((HttpServletRequest) req).getSession());
+
+        assertThat(metrics.snapshot()).isEmpty();
+    }
+}
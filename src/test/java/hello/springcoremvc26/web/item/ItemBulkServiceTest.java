@@ -0,0 +1,140 @@
+package hello.springcoremvc26.web.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springcoremvc26.domain.item.Item;
+import hello.springcoremvc26.domain.item.ItemRepository;
+import hello.springcoremvc26.domain.item.ItemSort;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ItemBulkServiceTest {
+    ItemRepository itemRepository = new ItemRepository();
+    ItemBulkService itemBulkService = new ItemBulkService(
+            itemRepository,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            messageSource(),
+            new ObjectMapper()
+    );
+
+    @Test
+    void importCsv() throws IOException {
+        String csv = """
+                itemName,price,quantity
+                itemA,10000,10
+                "item, ""B\""",20000,20
+                itemC,1000,1
+                itemD,abc,1
+                ,10000,10
+                """;
+
+        ItemBulkService.ImportResult result = itemBulkService.importItems(
+                new StringReader(csv), ItemFormat.CSV, Locale.KOREA
+        );
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(3);
+        // 가격 * 수량 최소 금액, 숫자 형식, 필수 값
+        assertThat(result.errors()).extracting(ItemBulkService.RowError::line).containsExactly(4L, 5L, 6L);
+        assertThat(result.errors().get(0).message()).isEqualTo("totalPriceMin 10,000 1,000");
+        assertThat(itemRepository.findAll()).extracting("itemName").containsExactlyInAnyOrder("itemA", "item, \"B\"");
+    }
+
+    @Test
+    void importNdjsonAndExport() throws IOException {
+        String ndjson = """
+                {"itemName":"itemA","price":10000,"quantity":10}
+                {"itemName":"itemB","price":"x","quantity":10}
+                """;
+        itemBulkService.importItems(new StringReader(ndjson), ItemFormat.NDJSON, Locale.KOREA);
+
+        StringWriter csv = new StringWriter();
+        itemBulkService.exportItems(csv, ItemFormat.CSV);
+        assertThat(csv.toString()).isEqualTo("id,itemName,price,quantity\n1,itemA,10000,10\n");
+
+        StringWriter ndjsonOut = new StringWriter();
+        itemBulkService.exportItems(ndjsonOut, ItemFormat.NDJSON);
+        assertThat(ndjsonOut.toString())
+                .isEqualTo("{\"id\":1,\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}\n");
+    }
+
+    @Test
+    void exportThenImport() throws IOException {
+        itemRepository.save(new Item("plain", 1_000_000, 9_999));
+        itemRepository.save(new Item("comma, \"quote\"", 10000, 1));
+        itemRepository.save(new Item("line\nbreak", 20000, 2));
+
+        for (ItemFormat format : ItemFormat.values()) {
+            StringWriter exported = new StringWriter();
+            itemBulkService.exportItems(exported, format);
+
+            // 내보낸 파일을 그대로 다른 저장소로 가져온다. id 는 새로 발급한다.
+            ItemRepository target = new ItemRepository();
+            ItemBulkService targetService = new ItemBulkService(
+                    target, Validation.buildDefaultValidatorFactory().getValidator(), messageSource(), new ObjectMapper()
+            );
+            ItemBulkService.ImportResult result = targetService.importItems(
+                    new StringReader(exported.toString()), format, Locale.KOREA
+            );
+
+            assertThat(result.rejected()).as(format.name()).isZero();
+            assertThat(target.findPage(ItemSort.ID, null, 10).items()).as(format.name())
+                    .extracting(Item::getItemName, Item::getPrice, Item::getQuantity)
+                    .containsExactly(
+                            tuple("plain", 1_000_000, 9_999),
+                            tuple("comma, \"quote\"", 10000, 1),
+                            tuple("line\nbreak", 20000, 2)
+                    );
+        }
+    }
+
+    @Test
+    void importCsvHeaderAndLongRecord() throws IOException {
+        // 헤더와 다른 첫 행은 "itemName" 으로 시작해도 상품이다.
+        String csv = "itemName2,10000,1\n"
+                + "\"" + "x".repeat(ItemBulkService.MAX_RECORD_LENGTH) + ",10000,1\n"
+                + "itemA,10000,1\n";
+
+        ItemBulkService.ImportResult result = itemBulkService.importItems(
+                new StringReader(csv), ItemFormat.CSV, Locale.KOREA
+        );
+
+        // 닫히지 않은 큰따옴표는 MAX_RECORD_LENGTH 에서 끊고 다음 줄부터 다시 읽는다.
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ItemBulkService.RowError::line).containsExactly(2L);
+        assertThat(result.errors().get(0).message()).isEqualTo("recordTooLong 65,536");
+        assertThat(itemRepository.findAll()).extracting("itemName").containsExactlyInAnyOrder("itemName2", "itemA");
+    }
+
+    @Test
+    void importInBatches() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        int rows = ItemBulkService.BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            csv.append("item").append(i).append(",10000,1\n");
+        }
+
+        ItemBulkService.ImportResult result = itemBulkService.importItems(
+                new StringReader(csv.toString()), ItemFormat.CSV, Locale.KOREA
+        );
+
+        assertThat(result.imported()).isEqualTo(rows);
+        assertThat(itemRepository.findById((long) rows).getItemName()).isEqualTo("item" + (rows - 1));
+    }
+
+    private static StaticMessageSource messageSource() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("totalPriceMin", Locale.KOREA, "totalPriceMin {0} {1}");
+        messageSource.addMessage("typeMismatch", Locale.KOREA, "typeMismatch");
+        messageSource.addMessage("recordTooLong", Locale.KOREA, "recordTooLong {0}");
+        return messageSource;
+    }
+}
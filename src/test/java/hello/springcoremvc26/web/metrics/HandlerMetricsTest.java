@@ -0,0 +1,43 @@
+package hello.springcoremvc26.web.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandlerMetricsTest {
+    HandlerMetrics handlerMetrics = new HandlerMetrics();
+
+    @Test
+    void recordPerHandler() throws NoSuchMethodException {
+        SampleController controller = new SampleController();
+        HandlerMethod list = new HandlerMethod(controller, SampleController.class.getMethod("list"));
+        HandlerMethod save = new HandlerMethod(controller, SampleController.class.getMethod("save"));
+
+        handlerMetrics.record(list, 200, 1_000_000);
+        handlerMetrics.record(list, 304, 2_000_000);
+        // 요청마다 HandlerMethod 가 새로 만들어져도 같은 메서드면 같이 센다.
+        handlerMetrics.record(new HandlerMethod(controller, SampleController.class.getMethod("list")), 200, 3_000_000);
+        handlerMetrics.record(save, 500, 5_000_000);
+        handlerMetrics.record("static resource", 200, 10_000);
+
+        assertThat(handlerMetrics.snapshot()).containsOnlyKeys(
+                "SampleController#list", "SampleController#save", HandlerMetrics.UNMAPPED);
+
+        HandlerMetrics.Summary summary = handlerMetrics.snapshot().get("SampleController#list");
+        assertThat(summary.count()).isEqualTo(3);
+        assertThat(summary.max()).isEqualTo(3000);
+        assertThat(summary.status()).containsEntry("2xx", 2L).containsEntry("3xx", 1L);
+        assertThat(handlerMetrics.snapshot().get("SampleController#save").status()).containsOnlyKeys("5xx");
+    }
+
+    static class SampleController {
+        public String list() {
+            return "list";
+        }
+
+        public String save() {
+            return "save";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package hello.springcoremvc26.web.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+    @Test
+    void bucketBounds() {
+        // 모든 값은 자기 칸의 범위 안에 있고, 칸 번호는 값 순서대로 늘어난다.
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value += 13) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(value).isLessThanOrEqualTo(LatencyHistogram.highestValueOf(index));
+            if (index > 0) {
+                assertThat(value).isGreaterThan(LatencyHistogram.highestValueOf(index - 1));
+            }
+            assertThat(index).isGreaterThanOrEqualTo(previous);
+            previous = index;
+        }
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMax()).isEqualTo(1_000_000);
+
+        // 칸 크기만큼의 오차(1/16) 안에 있다.
+        assertThat((double) snapshot.percentile(50)).isCloseTo(500_000, within(500_000 / 16.0));
+        assertThat((double) snapshot.percentile(99)).isCloseTo(990_000, within(990_000 / 16.0));
+        assertThat(snapshot.percentile(100)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void outOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.percentile(50)).isZero();
+        assertThat(snapshot.getMax()).isEqualTo(LatencyHistogram.MAX_VALUE);
+        assertThat(new LatencyHistogram().snapshot().percentile(99)).isZero();
+    }
+}
@@ -1,10 +1,21 @@
 package hello.springcoremvc26.web.session;
 
-import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.web.id.SecureSessionIdGenerator;
+import hello.springcoremvc26.web.session.store.HeapSessionStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class SessionManagerTest {
@@ -14,8 +25,7 @@ class SessionManagerTest {
     void sessionTest() {
         // 세션 생성
         MockHttpServletResponse resp = new MockHttpServletResponse();
-        Member member = new Member("test", "테스터 1", "test!");
-        sessionManager.createSession(member, resp);
+        sessionManager.createSession(1L, resp);
 
         // 요청에 응답 쿠키 저장
         MockHttpServletRequest req = new MockHttpServletRequest();
@@ -23,7 +33,7 @@ class SessionManagerTest {
 
         // 세션 조회
         sessionManager.getSession(req).ifPresent(
-                result -> assertThat(result).isEqualTo(member)
+                result -> assertThat(result).isEqualTo(1L)
         );
 
         // 세션 만료
@@ -33,4 +43,177 @@ class SessionManagerTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    void idleTimeout() {
+        MutableClock clock = new MutableClock();
+        SessionManager manager = newManager(10, clock);
+
+        MockHttpServletRequest req = createSession(manager, 1L);
+
+        // 유휴 시간 안에 접근하면 연장된다.
+        clock.advance(Duration.ofMinutes(20));
+        assertThat(manager.getSession(req)).contains(1L);
+        clock.advance(Duration.ofMinutes(20));
+        manager.sweep();
+        assertThat(manager.getActiveCount()).isEqualTo(1);
+
+        // 접근이 없으면 타이밍 휠이 정리한다.
+        clock.advance(Duration.ofMinutes(11));
+        manager.sweep();
+        assertThat(manager.getActiveCount()).isZero();
+        assertThat(manager.getSession(req)).isEmpty();
+        assertThat(manager.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    void absoluteTimeout() {
+        MutableClock clock = new MutableClock();
+        SessionManager manager = newManager(10, clock);
+
+        MockHttpServletRequest req = createSession(manager, 1L);
+
+        // 계속 접근해도 최대 수명이 지나면 만료
+        for (int i = 0; i < 8 * 4; i++) {
+            clock.advance(Duration.ofMinutes(15));
+            manager.getSession(req);
+            manager.sweep();
+        }
+        assertThat(manager.getSession(req)).isEmpty();
+        assertThat(manager.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    void maxSessions() {
+        SessionManager manager = newManager(2, new MutableClock());
+
+        MockHttpServletRequest first = createSession(manager, 1L);
+        MockHttpServletRequest second = createSession(manager, 2L);
+        MockHttpServletRequest third = createSession(manager, 3L);
+
+        // 가장 오래된 세션이 제거된다.
+        assertThat(manager.getSession(first)).isEmpty();
+        assertThat(manager.getSession(second)).contains(2L);
+        assertThat(manager.getSession(third)).contains(3L);
+        assertThat(manager.getCreatedCount()).isEqualTo(3);
+        assertThat(manager.getEvictedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stats() {
+        MutableClock clock = new MutableClock();
+        SessionManager manager = newManager(2, clock);
+
+        MockHttpServletRequest first = createSession(manager, 1L);
+        clock.advance(Duration.ofMinutes(10));
+        MockHttpServletRequest second = createSession(manager, 2L);
+        createSession(manager, 3L);
+
+        // 최근 1 분 동안의 생성, 제거만 센다.
+        SessionStats.Snapshot stats = manager.getStats();
+        assertThat(stats.active()).isEqualTo(2);
+        assertThat(stats.createdPerMinute()).isEqualTo(2);
+        assertThat(stats.evictedPerMinute()).isEqualTo(1);
+        assertThat(stats.age()).containsEntry("<1m", 2L);
+
+        // 접근한 세션만 유휴 시간이 줄어든다.
+        clock.advance(Duration.ofMinutes(20));
+        assertThat(manager.getSession(second)).contains(2L);
+        stats = manager.getStats();
+        assertThat(stats.createdPerMinute()).isZero();
+        assertThat(stats.age()).containsEntry("<30m", 2L);
+        assertThat(stats.idle()).containsEntry("<10s", 1L).containsEntry("<30m", 1L);
+
+        // 만료된 세션은 분포에서 빠진다.
+        manager.expire(second);
+        manager.expire(first);
+        stats = manager.getStats();
+        assertThat(stats.active()).isEqualTo(1);
+        assertThat(stats.expiredPerMinute()).isEqualTo(1);
+        assertThat(stats.age().values()).containsOnly(0L, 1L);
+        assertThat(stats.idle()).containsEntry("<10s", 0L).containsEntry("<30m", 1L);
+    }
+
+    @Test
+    void concurrentTouch() throws InterruptedException {
+        MutableClock clock = new MutableClock();
+        SessionManager manager = newManager(10, clock);
+        MockHttpServletRequest req = createSession(manager, 1L);
+        clock.advance(Duration.ofMinutes(20));
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    manager.getSession(req);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // 동시에 접근해도 이전 유휴 구간에서 한 번만 빠진다.
+        SessionStats.Snapshot stats = manager.getStats();
+        assertThat(stats.idle()).containsEntry("<10s", 1L);
+        assertThat(stats.idle().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+    }
+
+    private MockHttpServletRequest createSession(
+            SessionManager manager,
+            Long memberId
+    ) {
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        manager.createSession(memberId, resp);
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setCookies(resp.getCookies());
+        return req;
+    }
+
+    private SessionManager newManager(
+            int maxSessions,
+            Clock clock
+    ) {
+        return new SessionManager(
+                properties(maxSessions), new HeapSessionStore(), new SecureSessionIdGenerator(), clock, false
+        );
+    }
+
+    private SessionProperties properties(int maxSessions) {
+        SessionProperties properties = new SessionProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(30));
+        properties.setAbsoluteTimeout(Duration.ofHours(8));
+        properties.setMaxSessions(maxSessions);
+        properties.setTick(Duration.ofSeconds(1));
+        properties.setWheelSize(64);
+        return properties;
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2023-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package hello.springcoremvc26.web.session;
+
+import hello.springcoremvc26.web.id.SecureSessionIdGenerator;
+import hello.springcoremvc26.web.session.SessionManagerTest.MutableClock;
+import hello.springcoremvc26.web.session.replication.LoopbackTransport;
+import hello.springcoremvc26.web.session.replication.ReplicationTransport;
+import hello.springcoremvc26.web.session.store.HeapSessionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LoopbackTransport 로 연결한 노드 세 개
+ */
+class SessionReplicationTest {
+    MutableClock clock = new MutableClock();
+    LoopbackTransport transport = new LoopbackTransport();
+    SessionManager a = node("a", transport);
+    SessionManager b = node("b", transport.join());
+    SessionManager c = node("c", transport.join());
+
+    @AfterEach
+    void tearDown() {
+        List.of(a, b, c).forEach(SessionManager::shutdown);
+    }
+
+    @Test
+    void createAndLogout() throws InterruptedException {
+        MockHttpServletRequest req = createSession(a, 1L);
+        a.flushReplication();
+        await(() -> b.getActiveCount() == 1 && c.getActiveCount() == 1);
+
+        // 어느 노드로 가도 같은 세션
+        assertThat(b.getSession(req)).contains(1L);
+        assertThat(c.getSession(req)).contains(1L);
+
+        // 다른 노드에서 로그아웃하면 모든 노드에서 만료
+        c.expire(req);
+        c.flushReplication();
+        await(() -> a.getExpiredCount() == 1 && b.getExpiredCount() == 1);
+        assertThat(a.getSession(req)).isEmpty();
+        assertThat(b.getActiveCount()).isZero();
+    }
+
+    @Test
+    void touchExtendsIdleTimeoutOnOtherNodes() throws InterruptedException {
+        MockHttpServletRequest req = createSession(a, 1L);
+        a.flushReplication();
+        await(() -> appliedDeltas(b) == 1 && appliedDeltas(c) == 1);
+
+        // a 에만 접근해도 다른 노드의 유휴 시간이 연장된다.
+        clock.advance(Duration.ofMinutes(20));
+        assertThat(a.getSession(req)).contains(1L);
+        a.flushReplication();
+        await(() -> appliedDeltas(b) == 2 && appliedDeltas(c) == 2);
+
+        clock.advance(Duration.ofMinutes(20));
+        sweepAll();
+        assertThat(b.getActiveCount()).isEqualTo(1);
+        assertThat(c.getActiveCount()).isEqualTo(1);
+
+        // 유휴, 최대 수명 만료는 노드마다 각자 처리한다.
+        clock.advance(Duration.ofMinutes(11));
+        sweepAll();
+        assertThat(a.getActiveCount()).isZero();
+        assertThat(b.getActiveCount()).isZero();
+        assertThat(c.getActiveCount()).isZero();
+        assertThat(sentDeltas(b)).isZero();
+    }
+
+    @Test
+    void coalesceBeforeSend() throws InterruptedException {
+        MockHttpServletRequest first = createSession(a, 1L);
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofSeconds(2));
+            a.getSession(first);
+        }
+
+        // 보내기 전에 생성과 로그아웃이 모두 일어난 세션은 보내지 않는다.
+        MockHttpServletRequest second = createSession(a, 2L);
+        a.expire(second);
+
+        a.flushReplication();
+        await(() -> appliedDeltas(b) == 1 && appliedDeltas(c) == 1);
+
+        SessionReplicator.Stats sent = a.getReplicationStats().orElseThrow();
+        assertThat(sent.queued()).isEqualTo(8);
+        assertThat(sent.coalesced()).isEqualTo(6);
+        assertThat(sent.sentBatches()).isEqualTo(1);
+        assertThat(sent.sentDeltas()).isEqualTo(1);
+        assertThat(sent.pending()).isZero();
+
+        // 생성부터 보낼 때까지 기다린 시간
+        SessionReplicator.Stats received = b.getReplicationStats().orElseThrow();
+        assertThat(received.receivedBatches()).isEqualTo(1);
+        assertThat(received.receivedBytes()).isEqualTo(sent.sentBytes());
+        assertThat(received.lagMaxMillis()).isEqualTo(10_000);
+        assertThat(b.getSession(second)).isEmpty();
+    }
+
+    @Test
+    void resendAfterFailure() throws InterruptedException {
+        FailingTransport failing = new FailingTransport(transport.join());
+        SessionManager d = node("d", failing);
+        try {
+            createSession(d, 1L);
+            d.flushReplication();
+            await(() -> appliedDeltas(b) == 1);
+
+            // 보내지 못한 배치는 다음 flush 때 같은 번호로 다시 보낸다.
+            createSession(d, 2L);
+            failing.failNext = true;
+            d.flushReplication();
+            d.flushReplication();
+            await(() -> appliedDeltas(b) == 2 && appliedDeltas(c) == 2);
+
+            assertThat(d.getReplicationStats().orElseThrow().failures()).isEqualTo(1);
+            assertThat(b.getReplicationStats().orElseThrow().missedBatches()).isZero();
+            assertThat(c.getReplicationStats().orElseThrow().missedBatches()).isZero();
+        } finally {
+            d.shutdown();
+        }
+    }
+
+    private SessionManager node(
+            String nodeId,
+            ReplicationTransport transport
+    ) {
+        SessionProperties properties = new SessionProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(30));
+        properties.setAbsoluteTimeout(Duration.ofHours(8));
+        properties.setMaxSessions(100);
+        properties.setTick(Duration.ofSeconds(1));
+        properties.setWheelSize(64);
+        properties.getReplication().setNodeId(nodeId);
+
+        return new SessionManager(
+                properties, new HeapSessionStore(), new SecureSessionIdGenerator(), clock, false, transport
+        );
+    }
+
+    private MockHttpServletRequest createSession(
+            SessionManager manager,
+            Long memberId
+    ) {
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        manager.createSession(memberId, resp);
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setCookies(resp.getCookies());
+        return req;
+    }
+
+    private void sweepAll() {
+        List.of(a, b, c).forEach(SessionManager::sweep);
+    }
+
+    private static long appliedDeltas(SessionManager manager) {
+        return manager.getReplicationStats().orElseThrow().appliedDeltas();
+    }
+
+    private static long sentDeltas(SessionManager manager) {
+        return manager.getReplicationStats().orElseThrow().sentDeltas();
+    }
+
+    /**
+     * failNext 가 true 면 다음 한 번은 보내지 못한다.
+     */
+    private static class FailingTransport implements ReplicationTransport {
+        private final ReplicationTransport delegate;
+        volatile boolean failNext;
+
+        FailingTransport(ReplicationTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void publish(byte[] batch) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("publish failed");
+            }
+            delegate.publish(batch);
+        }
+
+        @Override
+        public void subscribe(Consumer<byte[]> receiver) {
+            delegate.subscribe(receiver);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    /**
+     * LoopbackTransport 는 받는 쪽 스레드에서 반영하므로 잠시 기다린다.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("replication timed out");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
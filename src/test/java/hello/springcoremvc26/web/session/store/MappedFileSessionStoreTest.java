@@ -0,0 +1,56 @@
+package hello.springcoremvc26.web.session.store;
+
+import hello.springcoremvc26.domain.member.Member;
+import hello.springcoremvc26.web.session.SessionEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedFileSessionStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void reloadAfterRestart() {
+        Path file = dir.resolve("sessions.dat");
+
+        MappedFileSessionStore store = new MappedFileSessionStore(file, 1024 * 1024, new CompactSessionValueCodec());
+        store.put(new SessionEntry("a", new Member("test", "테스터", "test!"), 1000L, 1L));
+        store.put(new SessionEntry("b", 2L, 1000L, 2L));
+        store.put(new SessionEntry("c", "value", 1000L, 3L));
+        store.touch(store.get("a"), 1000L, 5000L);
+        assertThat(store.remove("b", 2L)).isTrue();
+        store.close();
+
+        // 다시 열면 제거되지 않은 세션만 남아있다.
+        MappedFileSessionStore reloaded = new MappedFileSessionStore(file, 1024 * 1024, new CompactSessionValueCodec());
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.get("b")).isNull();
+        assertThat(reloaded.get("c").getValue()).isEqualTo("value");
+
+        SessionEntry a = reloaded.get("a");
+        assertThat(((Member) a.getValue()).getLoginId()).isEqualTo("test");
+        assertThat(a.getLastAccessedTime()).isEqualTo(5000L);
+        reloaded.close();
+    }
+
+    @Test
+    void compactWhenFull() {
+        // 레코드 몇 개만 들어가는 크기
+        MappedFileSessionStore store = new MappedFileSessionStore(dir.resolve("small.dat"), 1024, new CompactSessionValueCodec());
+
+        // 제거된 공간을 다시 쓰면서 계속 저장할 수 있다.
+        for (long i = 1; i <= 1000; i++) {
+            store.put(new SessionEntry("session-" + i, i, 1000L, i));
+            assertThat(store.remove("session-" + i, i)).isTrue();
+        }
+        store.put(new SessionEntry("last", "value", 1000L, 1001L));
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get("last").getValue()).isEqualTo("value");
+        store.close();
+    }
+}
@@ -0,0 +1,41 @@
+package hello.springcoremvc26.web.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FragmentCacheTest {
+    @Test
+    void renderOncePerKey() {
+        FragmentCache cache = newCache(2);
+        AtomicInteger renders = new AtomicInteger();
+
+        assertThat(cache.get("a", () -> "A" + renders.incrementAndGet())).isEqualTo("A1");
+        assertThat(cache.get("a", () -> "A" + renders.incrementAndGet())).isEqualTo("A1");
+        assertThat(renders).hasValue(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        FragmentCache cache = newCache(2);
+        cache.get("a", () -> "A");
+        cache.get("b", () -> "B");
+        cache.get("a", () -> "A");
+
+        // b 가 가장 오래 전에 쓰였으므로 밀려난다.
+        cache.get("c", () -> "C");
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.get("a", () -> "A2")).isEqualTo("A");
+        assertThat(cache.get("b", () -> "B2")).isEqualTo("B2");
+    }
+
+    private FragmentCache newCache(int size) {
+        ViewProperties properties = new ViewProperties();
+        properties.setFragmentCacheSize(size);
+        return new FragmentCache(properties);
+    }
+}